@@ -0,0 +1,96 @@
+package com.example.game2048.bench;
+
+import com.example.game2048.core.BatchMoves;
+import com.example.game2048.core.Board;
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.Game;
+import com.example.game2048.sim.Engine;
+import com.example.game2048.sim.LegacyGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of moving boards: whole seeded games on the legacy and the packed engine, and single moves of packed boards
+ * one by one and in batches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class MoveBenchmark {
+    private static final int BOARDS = 4096;
+
+    private final long[] boards = new long[BOARDS];
+    private final long[] results = new long[BOARDS];
+    private final int[] scores = new int[BOARDS];
+    private long seed;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < BOARDS; i++) {
+            long board = 0;
+            for (int g = 0; g < Board.GRIDS; g++) {
+                if (random.nextInt(3) > 0)
+                    board |= (long) (1 + random.nextInt(11)) << (4 * g);
+            }
+            boards[i] = board;
+        }
+    }
+
+    private static int play(Engine engine, long seed) {
+        Random moves = new Random(seed);
+        engine.start();
+        while (engine.state() != Game.State.over && Board.canMove(engine.board())) {
+            engine.move(Direction.of(moves.nextInt(4)));
+        }
+        return engine.score();
+    }
+
+    @Benchmark
+    public int legacyGame() {
+        seed++;
+        return play(new LegacyGame(seed), seed);
+    }
+
+    @Benchmark
+    public int packedGame() {
+        seed++;
+        return play(Engine.of(new Game(seed)), seed);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOARDS * 4)
+    public long singleMoves() {
+        long sum = 0;
+        for (Direction d : Direction.values()) {
+            for (int i = 0; i < BOARDS; i++) {
+                sum += Board.move(boards[i], d) + Board.score(boards[i], d);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOARDS * 4)
+    public long batchMoves() {
+        for (Direction d : Direction.values()) {
+            BatchMoves.move(d, boards, results, scores, BOARDS);
+        }
+        return results[BOARDS - 1] + scores[BOARDS - 1];
+    }
+}
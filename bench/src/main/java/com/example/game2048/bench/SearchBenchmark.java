@@ -0,0 +1,73 @@
+package com.example.game2048.bench;
+
+import com.example.game2048.ai.Expectimax;
+import com.example.game2048.ai.Heuristic;
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one search of the solver on positions taken from a game it plays itself. The transposition table is new
+ * for every iteration, so repeated positions do not make the search look cheaper than it is.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+    private static final int POSITIONS = 256;
+
+    @Param({"1", "2", "3"})
+    public int depth;
+
+    // Scores the leaves with the incremental update of the heuristic, or every leaf from scratch.
+    @Param({"true", "false"})
+    public boolean incremental;
+
+    private final long[] positions = new long[POSITIONS];
+    private Expectimax solver;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Expectimax player = new Expectimax(2, null, Heuristic::evaluate);
+        Game game = new Game(7);
+        game.start();
+        for (int i = 0; i < POSITIONS; i++) {
+            positions[i] = game.getBoard();
+            Direction d = player.bestMove(game.getBoard());
+            if (d == null) {
+                game = new Game(i);
+                game.start();
+            } else {
+                game.move(d);
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void newTable() {
+        solver = new Expectimax(depth, null, incremental ? null : Heuristic::evaluate);
+    }
+
+    @Benchmark
+    public Direction bestMove() {
+        next = (next + 1) % POSITIONS;
+        return solver.bestMove(positions[next], depth);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.game2048.ai;
+
+import com.example.game2048.core.Direction;
+
+/**
+ * Plays a game on a background thread with moves chosen by {@link Expectimax}.
+ * The player only talks to the game through a {@link Host}, so the front end decides how moves are applied and when
+ * the view is redrawn. With an unlimited speed moves are played as fast as the search allows.
+ * <p>
+ * By default every move is searched for {@link #DEFAULT_BUDGET_NANOS}, see
+ * {@link Expectimax#bestMoveWithin(long, long)}, so a move takes about as long on an open board as on a crowded one.
+ */
+public final class AutoPlayer {
+    /**
+     * Selectable speeds in moves per second, {@link #UNLIMITED} plays as fast as possible.
+     */
+    public static final int UNLIMITED = 0;
+    public static final long DEFAULT_BUDGET_NANOS = 5_000_000L;
+    private static final int[] SPEEDS = {1, 2, 5, 10, 20, 50, 100, UNLIMITED};
+    private static final int MAX_DEPTH = 8;
+
+    /**
+     * The game driven by the player. Methods are called from the player thread.
+     */
+    public interface Host {
+        /**
+         * @return if the game is running and accepts moves.
+         */
+        boolean isRunning();
+
+        /**
+         * @return the packed board of the running game.
+         */
+        long board();
+
+        /**
+         * Applies a move to the game, unless the board is no longer the one the move was searched for, e.g. because
+         * the player moved in the meantime.
+         *
+         * @param board the packed board the move was searched for.
+         * @param direction the direction to move in.
+         */
+        void play(long board, Direction direction);
+    }
+
+    private final Host host;
+    private final Expectimax solver;
+    private final long budgetNanos;
+    private volatile int speedIndex = 3;
+    private volatile Thread thread;
+
+    public AutoPlayer(Host host) {
+        this(host, new Expectimax(MAX_DEPTH), DEFAULT_BUDGET_NANOS);
+    }
+
+    /**
+     * @param host the game to play.
+     * @param solver the search choosing the moves, used only by the player thread.
+     * @param budgetNanos the time to search each move, 0 to search to the depth {@link Expectimax#bestMove(long)}
+     *                    picks for the board.
+     */
+    public AutoPlayer(Host host, Expectimax solver, long budgetNanos) {
+        this.host = host;
+        this.solver = solver;
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Starts playing if not already playing. The player stops by itself when the game is no longer running.
+     */
+    public synchronized void start() {
+        if (thread != null)
+            return;
+        Thread t = new Thread(this::run, "auto-play");
+        t.setDaemon(true);
+        thread = t;
+        t.start();
+    }
+
+    public synchronized void stop() {
+        Thread t = thread;
+        thread = null;
+        if (t != null)
+            t.interrupt();
+    }
+
+    public void toggle() {
+        if (isPlaying()) {
+            stop();
+        } else {
+            start();
+        }
+    }
+
+    public boolean isPlaying() {
+        return thread != null;
+    }
+
+    public void faster() {
+        speedIndex = Math.min(SPEEDS.length - 1, speedIndex + 1);
+    }
+
+    public void slower() {
+        speedIndex = Math.max(0, speedIndex - 1);
+    }
+
+    /**
+     * @return the current speed in moves per second, {@link #UNLIMITED} if playing as fast as possible.
+     */
+    public int getSpeed() {
+        return SPEEDS[speedIndex];
+    }
+
+    /**
+     * @return the current speed for display, e.g. "10 moves/s" or "max speed".
+     */
+    public String getSpeedLabel() {
+        int speed = getSpeed();
+        return speed == UNLIMITED ? "max speed" : speed + " moves/s";
+    }
+
+    private void run() {
+        Thread self = Thread.currentThread();
+        try {
+            while (thread == self && host.isRunning()) {
+                long start = System.nanoTime();
+                long board = host.board();
+                Direction d = budgetNanos > 0 ? solver.bestMoveWithin(board, budgetNanos) : solver.bestMove(board);
+                if (d == null || thread != self)
+                    break;
+                host.play(board, d);
+                int speed = getSpeed();
+                if (speed != UNLIMITED) {
+                    long remaining = 1_000_000_000L / speed - (System.nanoTime() - start);
+                    if (remaining > 0)
+                        Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+                }
+            }
+        } catch (InterruptedException e) {
+            // stopped while waiting for the next move
+        } finally {
+            synchronized (this) {
+                if (thread == self)
+                    thread = null;
+            }
+        }
+    }
+}
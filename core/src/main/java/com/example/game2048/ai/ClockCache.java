@@ -0,0 +1,83 @@
+package com.example.game2048.ai;
+
+/**
+ * Bounded cache from packed boards to small int values.
+ * Entries are grouped in sets of {@link #WAYS} slots chosen by the hash of the board. A full set evicts with the CLOCK
+ * policy: the hand skips and clears recently used slots and replaces the first one not used since it last passed.
+ * Lookups and inserts never allocate. Not thread safe.
+ */
+final class ClockCache {
+    static final int WAYS = 8;
+    static final int MISSING = Integer.MIN_VALUE;
+
+    private final long[] keys;
+    private final int[] values;
+    private final boolean[] used;
+    private final boolean[] referenced;
+    private final byte[] hands;
+    private final int setMask;
+
+    /**
+     * @param capacity the maximum number of entries, rounded up to a power of two of at least {@link #WAYS}.
+     */
+    ClockCache(int capacity) {
+        // The next power of two of the sets needed for the capacity, at least one.
+        int needed = Math.max(1, (capacity + WAYS - 1) / WAYS);
+        int sets = Math.max(1, Integer.highestOneBit(needed - 1) << 1);
+        keys = new long[sets * WAYS];
+        values = new int[sets * WAYS];
+        used = new boolean[sets * WAYS];
+        referenced = new boolean[sets * WAYS];
+        hands = new byte[sets];
+        setMask = sets - 1;
+    }
+
+    int set(long board) {
+        long h = board * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32 ^ h) & setMask;
+    }
+
+    /**
+     * @param board the packed board.
+     * @return the cached value, {@link #MISSING} if the board is not cached.
+     */
+    int get(long board) {
+        int base = set(board) * WAYS;
+        for (int i = base; i < base + WAYS; i++) {
+            if (used[i] && keys[i] == board) {
+                referenced[i] = true;
+                return values[i];
+            }
+        }
+        return MISSING;
+    }
+
+    void put(long board, int value) {
+        int s = set(board);
+        int base = s * WAYS;
+        for (int i = base; i < base + WAYS; i++) {
+            if (!used[i] || keys[i] == board) {
+                store(i, board, value);
+                return;
+            }
+        }
+        int hand = hands[s];
+        while (referenced[base + hand]) {
+            referenced[base + hand] = false;
+            hand = (hand + 1) % WAYS;
+        }
+        store(base + hand, board, value);
+        hands[s] = (byte) ((hand + 1) % WAYS);
+    }
+
+    private void store(int i, long board, int value) {
+        keys[i] = board;
+        values[i] = value;
+        used[i] = true;
+        referenced[i] = true;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+}
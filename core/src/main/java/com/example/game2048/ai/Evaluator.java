@@ -0,0 +1,20 @@
+package com.example.game2048.ai;
+
+/**
+ * Scores a packed board at the leaves of the search, higher is better.
+ */
+@FunctionalInterface
+public interface Evaluator {
+    float evaluate(long board);
+
+    /**
+     * Tells whether the scores are afterstate values, like those of a network trained by {@link TdTrainer}: the score
+     * still to be gained after the move that led to the board, without the reward of that move. The search then adds
+     * the reward of every move to its value, so it ranks moves by reward plus value as the evaluator was trained to.
+     *
+     * @return if the reward of a move is added to the score of the board after it, false by default.
+     */
+    default boolean excludesMoveReward() {
+        return false;
+    }
+}
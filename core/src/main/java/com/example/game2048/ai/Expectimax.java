@@ -0,0 +1,272 @@
+package com.example.game2048.ai;
+
+import com.example.game2048.core.Board;
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.Symmetry;
+
+/**
+ * Expectimax search over packed boards. Move nodes take the best direction, chance nodes average over every empty
+ * grid receiving a 2 or a 4, and the leaves are scored by an {@link Evaluator}: {@link Heuristic} unless a trained
+ * {@link NTupleNetwork} is named by the {@value NTupleNetwork#PROPERTY} system property. The network values the board
+ * after a move without the score of that move, so with it the score of every move is added to its value, see
+ * {@link Evaluator#excludesMoveReward()}.
+ * Branches whose probability drops below a threshold are cut off early, and evaluated chance nodes are cached in a
+ * transposition table kept between calls, keyed by the {@link Symmetry#canonical(long) canonical} board so that
+ * rotated and mirrored positions share an entry. A search can also be bounded by time instead of depth, see
+ * {@link #bestMoveWithin(long, long)}. With the {@link Heuristic} the last layer of moves is scored by
+ * {@link IncrementalLeaves}, which updates the lines of the parent chance node instead of rescoring every leaf.
+ * Positions covered by the {@link Tablebase} named by the {@value Tablebase#PROPERTY} system property are looked up
+ * instead of searched. An instance is not thread safe.
+ */
+public class Expectimax {
+    /**
+     * Probability of a new tile being a 2. {@code Game2048.addRandomTile} picks 2 and 4 equally often.
+     */
+    static final float PROB_TWO = 0.5f;
+    static final float PROB_FOUR = 1 - PROB_TWO;
+    private static final float CPROB_THRESHOLD = 0.0001f;
+    // With fewer empty grids preparing the update costs more than it saves on the few children.
+    private static final int LEAF_UPDATE_MIN_EMPTY = 4;
+    private static final int DEFAULT_MAX_DEPTH = 3;
+    private static final int TABLE_BITS = 20;
+    // Leaves and chance nodes between two looks at the clock. A leaf can be expensive, e.g. with a large network, and
+    // one chance node above the leaves scores up to 120 of them, so counting chance nodes alone overshoots the budget.
+    static final int WORK_PER_DEADLINE_CHECK = 128;
+
+    private final TranspositionTable table = new TranspositionTable(TABLE_BITS);
+    private final int maxDepth;
+    private final Tablebase tablebase;
+    private final Evaluator evaluator;
+    // Scores the last layer of moves if the evaluator is the Heuristic, null otherwise.
+    private final IncrementalLeaves leaves;
+    // If the value of a move includes its score, for evaluators of afterstates.
+    private final boolean moveRewards;
+    // Set while a time bounded search runs, checked every WORK_PER_DEADLINE_CHECK leaves and chance nodes.
+    private long deadline = Long.MAX_VALUE;
+    private boolean aborted;
+    private int work;
+
+    public Expectimax() {
+        this(DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * @param maxDepth the deepest number of chance levels searched by {@link #bestMove(long)}.
+     */
+    public Expectimax(int maxDepth) {
+        this(maxDepth, Tablebase.fromSystemProperty());
+    }
+
+    /**
+     * @param maxDepth the deepest number of chance levels searched by {@link #bestMove(long)}.
+     * @param tablebase a 4x4 table of solved positions, may be null.
+     */
+    public Expectimax(int maxDepth, Tablebase tablebase) {
+        this(maxDepth, tablebase, NTupleNetwork.fromSystemProperty());
+    }
+
+    /**
+     * @param maxDepth the deepest number of chance levels searched by {@link #bestMove(long)}.
+     * @param tablebase a 4x4 table of solved positions, may be null.
+     * @param evaluator scores the leaves, the incrementally updated {@link Heuristic} if null.
+     */
+    public Expectimax(int maxDepth, Tablebase tablebase, Evaluator evaluator) {
+        this.maxDepth = maxDepth;
+        this.tablebase = tablebase;
+        this.evaluator = evaluator != null ? evaluator : Heuristic::evaluate;
+        this.leaves = evaluator == null ? new IncrementalLeaves() : null;
+        moveRewards = this.evaluator.excludesMoveReward();
+    }
+
+    /**
+     * Finds the best move, searching deeper when there are more distinct tiles on the board.
+     *
+     * @param board the packed board.
+     * @return the best direction, null if no tile can move.
+     */
+    public Direction bestMove(long board) {
+        return bestMove(board, depthFor(board));
+    }
+
+    /**
+     * Finds the best move searching a fixed number of chance levels.
+     *
+     * @param board the packed board.
+     * @param depth the number of chance levels, 0 only evaluates the boards after each move.
+     * @return the best direction, null if no tile can move.
+     */
+    public Direction bestMove(long board, int depth) {
+        if (tablebase != null) {
+            Direction solved = tablebase.bestMove(board);
+            if (solved != null)
+                return solved;
+        }
+        Direction best = null;
+        float bestValue = Float.NEGATIVE_INFINITY;
+        for (Direction d : Direction.values()) {
+            long next = Board.move(board, d);
+            if (next == board)
+                continue;
+            float value = reward(board, d) + chanceNode(next, depth, 1f);
+            if (value > bestValue) {
+                bestValue = value;
+                best = d;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the best move within a time budget by iterative deepening. Searches of increasing depth are run until the
+     * budget is used up or {@code maxDepth} is reached. Chance nodes evaluated by earlier iterations are served from
+     * the transposition table, and each iteration searches the moves in the order of the values the last one gave
+     * them, best first. When the budget runs out during an iteration, the moves it finished were compared at the new
+     * depth with the best one of the last iteration, so the best of them is returned; a search is never wasted.
+     *
+     * @param board the packed board.
+     * @param budgetNanos the time budget in nanoseconds.
+     * @return the best direction found, null if no tile can move.
+     */
+    public Direction bestMoveWithin(long board, long budgetNanos) {
+        if (tablebase != null) {
+            Direction solved = tablebase.bestMove(board);
+            if (solved != null)
+                return solved;
+        }
+        Direction[] moves = new Direction[4];
+        long[] boards = new long[4];
+        float[] values = new float[4];
+        int n = 0;
+        for (Direction d : Direction.values()) {
+            long next = Board.move(board, d);
+            if (next == board)
+                continue;
+            moves[n] = d;
+            boards[n] = next;
+            // Depth 0 never expands a chance node, so there always is an answer.
+            values[n++] = reward(board, d) + chanceNode(next, 0, 1f);
+        }
+        if (n <= 1)
+            return n == 0 ? null : moves[0];
+        sortByValue(moves, boards, values, n);
+
+        deadline = System.nanoTime() + budgetNanos;
+        aborted = false;
+        try {
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                int searched = 0;
+                for (; searched < n; searched++) {
+                    float value = chanceNode(boards[searched], depth, 1f);
+                    if (aborted)
+                        break;
+                    values[searched] = reward(board, moves[searched]) + value;
+                }
+                sortByValue(moves, boards, values, searched);
+                if (aborted)
+                    break;
+            }
+        } finally {
+            deadline = Long.MAX_VALUE;
+            aborted = false;
+        }
+        return moves[0];
+    }
+
+    /**
+     * Sorts the first moves by value, highest first, keeping the earlier of equal moves first.
+     */
+    private static void sortByValue(Direction[] moves, long[] boards, float[] values, int n) {
+        for (int i = 1; i < n; i++) {
+            Direction move = moves[i];
+            long next = boards[i];
+            float value = values[i];
+            int j = i;
+            for (; j > 0 && values[j - 1] < value; j--) {
+                moves[j] = moves[j - 1];
+                boards[j] = boards[j - 1];
+                values[j] = values[j - 1];
+            }
+            moves[j] = move;
+            boards[j] = next;
+            values[j] = value;
+        }
+    }
+
+    int depthFor(long board) {
+        return Math.max(1, Math.min(maxDepth, distinctTiles(board) - 3));
+    }
+
+    static int distinctTiles(long board) {
+        int seen = 0;
+        for (; board != 0; board >>>= 4) {
+            seen |= 1 << (board & 0xF);
+        }
+        return Integer.bitCount(seen & ~1);
+    }
+
+    float moveNode(long board, int depth, float cprob) {
+        float best = 0;
+        for (int d = 0; d < 4; d++) {
+            Direction direction = Direction.of(d);
+            long next = Board.move(board, direction);
+            if (next != board)
+                best = Math.max(best, reward(board, direction) + chanceNode(next, depth, cprob));
+        }
+        return best;
+    }
+
+    /**
+     * @return the score of a move if the evaluator leaves it out of its values, 0 otherwise.
+     */
+    private float reward(long board, Direction direction) {
+        return moveRewards ? Board.score(board, direction) : 0;
+    }
+
+    float chanceNode(long board, int depth, float cprob) {
+        if (aborted || (++work >= WORK_PER_DEADLINE_CHECK && pastDeadline())) {
+            aborted = true;
+            return 0;
+        }
+        if (depth <= 0 || cprob < CPROB_THRESHOLD)
+            return evaluator.evaluate(board);
+        long key = Symmetry.canonical(board);
+        float cached = table.get(key, depth);
+        if (!Float.isNaN(cached))
+            return cached;
+
+        int empty = Board.emptyCount(board);
+        float childProb = cprob / empty;
+        float sum = 0;
+        // If the moves of all children only lead to leaves, they are scored from the moves of this board.
+        if (leaves != null && empty >= LEAF_UPDATE_MIN_EMPTY
+                && (depth == 1 || childProb * Math.max(PROB_TWO, PROB_FOUR) < CPROB_THRESHOLD)) {
+            leaves.prepare(board);
+            for (int i = 0; i < Board.GRIDS; i++) {
+                if (((board >>> (4 * i)) & 0xF) != 0)
+                    continue;
+                sum += PROB_TWO * leaves.best(i, 1);
+                sum += PROB_FOUR * leaves.best(i, 2);
+            }
+            // Both tiles in every empty grid, each scored after the four moves.
+            work += 8 * empty;
+        } else {
+            for (int i = 0; i < Board.GRIDS; i++) {
+                int shift = 4 * i;
+                if (((board >>> shift) & 0xF) != 0)
+                    continue;
+                sum += PROB_TWO * moveNode(board | (1L << shift), depth - 1, childProb * PROB_TWO);
+                sum += PROB_FOUR * moveNode(board | (2L << shift), depth - 1, childProb * PROB_FOUR);
+            }
+        }
+        float value = sum / empty;
+        // Values of an aborted search are incomplete and must not be cached.
+        if (!aborted)
+            table.put(key, depth, value);
+        return value;
+    }
+
+    private boolean pastDeadline() {
+        work = 0;
+        return System.nanoTime() > deadline;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.game2048.ai;
+
+import com.example.game2048.core.Board;
+
+/**
+ * Static evaluation of packed boards used at the leaves of the search.
+ * Every row and column is scored on its own from a precomputed table rewarding empty grids, possible merges and
+ * monotonic lines, and penalizing large tiles spread over the board.
+ */
+public final class Heuristic {
+    private static final float LOST_PENALTY = 200000f;
+    private static final float MONOTONICITY_POWER = 4f;
+    private static final float MONOTONICITY_WEIGHT = 47f;
+    private static final float SUM_POWER = 3.5f;
+    private static final float SUM_WEIGHT = 11f;
+    private static final float MERGES_WEIGHT = 700f;
+    private static final float EMPTY_WEIGHT = 270f;
+
+    private static final float[] LINE_SCORE = new float[65536];
+
+    static {
+        for (int row = 0; row < 65536; row++) {
+            int[] line = {row & 0xF, (row >>> 4) & 0xF, (row >>> 8) & 0xF, (row >>> 12) & 0xF};
+            float sum = 0;
+            int empty = 0;
+            int merges = 0;
+            int prev = 0;
+            int counter = 0;
+            for (int rank : line) {
+                sum += (float) Math.pow(rank, SUM_POWER);
+                if (rank == 0) {
+                    empty++;
+                } else {
+                    if (prev == rank) {
+                        counter++;
+                    } else if (counter > 0) {
+                        merges += 1 + counter;
+                        counter = 0;
+                    }
+                    prev = rank;
+                }
+            }
+            if (counter > 0)
+                merges += 1 + counter;
+
+            float monotonicityLeft = 0;
+            float monotonicityRight = 0;
+            for (int i = 1; i < 4; i++) {
+                float a = (float) Math.pow(line[i - 1], MONOTONICITY_POWER);
+                float b = (float) Math.pow(line[i], MONOTONICITY_POWER);
+                if (line[i - 1] > line[i]) {
+                    monotonicityLeft += a - b;
+                } else {
+                    monotonicityRight += b - a;
+                }
+            }
+
+            LINE_SCORE[row] = LOST_PENALTY + EMPTY_WEIGHT * empty + MERGES_WEIGHT * merges
+                    - MONOTONICITY_WEIGHT * Math.min(monotonicityLeft, monotonicityRight) - SUM_WEIGHT * sum;
+        }
+    }
+
+    private Heuristic() {
+    }
+
+    /**
+     * Evaluates a board, higher is better.
+     *
+     * @param board the packed board.
+     * @return the sum of the scores of all rows and columns.
+     */
+    public static float evaluate(long board) {
+        return rows(board) + rows(Board.transpose(board));
+    }
+
+    /**
+     * @param row a 16 bit row or column.
+     * @return the score of the line.
+     */
+    static float line(int row) {
+        return LINE_SCORE[row];
+    }
+
+    /**
+     * @param board the packed board.
+     * @return the sum of the scores of the rows, without the columns.
+     */
+    static float rows(long board) {
+        return LINE_SCORE[(int) (board & 0xFFFF)]
+                + LINE_SCORE[(int) ((board >>> 16) & 0xFFFF)]
+                + LINE_SCORE[(int) ((board >>> 32) & 0xFFFF)]
+                + LINE_SCORE[(int) (board >>> 48)];
+    }
+}
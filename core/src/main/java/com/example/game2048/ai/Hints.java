@@ -0,0 +1,51 @@
+package com.example.game2048.ai;
+
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.Symmetry;
+
+/**
+ * Recommends moves to players. Answers are cached per canonical board, so positions seen before, or a rotation or
+ * reflection of them, are answered without searching; other positions are searched by
+ * {@link Expectimax#bestMoveWithin(long, long)} for at most {@link #DEFAULT_BUDGET_NANOS}, which fits into one frame.
+ * Thread safe.
+ */
+public final class Hints {
+    public static final long DEFAULT_BUDGET_NANOS = 10_000_000L;
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int MAX_DEPTH = 8;
+
+    private final ClockCache cache;
+    private final Expectimax solver = new Expectimax(MAX_DEPTH);
+    private final long budgetNanos;
+
+    public Hints() {
+        this(DEFAULT_CAPACITY, DEFAULT_BUDGET_NANOS);
+    }
+
+    /**
+     * @param capacity the maximum number of cached answers.
+     * @param budgetNanos the time a search may take on a cache miss.
+     */
+    public Hints(int capacity, long budgetNanos) {
+        cache = new ClockCache(capacity);
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Recommends a move.
+     *
+     * @param board the packed board.
+     * @return the recommended direction, null if no tile can move.
+     */
+    public synchronized Direction hint(long board) {
+        int t = Symmetry.canonicalTransform(board);
+        long key = Symmetry.transform(board, t);
+        int cached = cache.get(key);
+        if (cached != ClockCache.MISSING)
+            return Symmetry.toOriginal(Direction.of(cached), t);
+        Direction d = solver.bestMoveWithin(board, budgetNanos);
+        if (d != null)
+            cache.put(key, Symmetry.toTransformed(d, t).ordinal());
+        return d;
+    }
+}
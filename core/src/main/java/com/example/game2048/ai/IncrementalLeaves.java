@@ -0,0 +1,94 @@
+package com.example.game2048.ai;
+
+import com.example.game2048.core.Board;
+import com.example.game2048.core.Direction;
+
+/**
+ * Scores the last move layer of a search with the {@link Heuristic}, updating the scores of the parent chance node
+ * instead of moving and scoring every leaf from scratch. A child of a chance node differs from it in the one grid
+ * that got the new tile, so after a move every row (for up and down every column) but the one holding that grid is
+ * the same as in the parent after that move. {@link #prepare} moves and scores the lines of the parent once per
+ * direction, and {@link #best} then only moves and rescores the line with the new tile and rescores the lines
+ * across it.
+ * <p>
+ * Keeps the lines of one parent between the calls, so it can only serve one chance node at a time.
+ */
+final class IncrementalLeaves {
+    private static final int UP = Direction.UP.ordinal();
+    private static final int DOWN = Direction.DOWN.ordinal();
+    private static final int LEFT = Direction.LEFT.ordinal();
+    private static final int RIGHT = Direction.RIGHT.ordinal();
+
+    private final int[] rows = new int[Board.SIDE];
+    private final int[] columns = new int[Board.SIDE];
+    // By direction: the lines of the parent after the move, as a board (transposed for up and down), their score and
+    // how many of them the move changes.
+    private final int[][] moved = new int[4][Board.SIDE];
+    private final long[] movedBoards = new long[4];
+    private final float[] movedScores = new float[4];
+    private final int[] changed = new int[4];
+
+    /**
+     * Moves and scores the lines of a chance node in every direction.
+     *
+     * @param board the packed board of the chance node.
+     */
+    void prepare(long board) {
+        long transposed = Board.transpose(board);
+        for (int i = 0; i < Board.SIDE; i++) {
+            rows[i] = Board.row(board, i);
+            columns[i] = Board.row(transposed, i);
+        }
+        prepare(UP, columns, true);
+        prepare(DOWN, columns, false);
+        prepare(LEFT, rows, true);
+        prepare(RIGHT, rows, false);
+    }
+
+    private void prepare(int direction, int[] lines, boolean left) {
+        long board = 0;
+        float score = 0;
+        int n = 0;
+        for (int i = 0; i < Board.SIDE; i++) {
+            int line = left ? Board.moveRowLeft(lines[i]) : Board.moveRowRight(lines[i]);
+            moved[direction][i] = line;
+            board |= (long) line << (16 * i);
+            score += Heuristic.line(line);
+            if (line != lines[i])
+                n++;
+        }
+        movedBoards[direction] = board;
+        movedScores[direction] = score;
+        changed[direction] = n;
+    }
+
+    /**
+     * Scores the best move after a new tile is added to the prepared board, the value {@code Expectimax.moveNode}
+     * returns when the boards after the moves are leaves.
+     *
+     * @param grid the empty grid getting the tile, {@code 4 * x + y}.
+     * @param exponent the exponent of the new tile.
+     * @return the highest {@link Heuristic} score of a board after a move, but at least 0, the value of a board where
+     *         no tile can move.
+     */
+    float best(int grid, int exponent) {
+        int x = grid >>> 2;
+        int y = grid & 3;
+        // Starts at 0 like moveNode, which never goes below it even if every move scores less.
+        float best = Math.max(0, score(UP, columns, y, x, exponent, true));
+        best = Math.max(best, score(DOWN, columns, y, x, exponent, false));
+        best = Math.max(best, score(LEFT, rows, x, y, exponent, true));
+        return Math.max(best, score(RIGHT, rows, x, y, exponent, false));
+    }
+
+    private float score(int direction, int[] lines, int i, int position, int exponent, boolean left) {
+        int line = lines[i] | exponent << (4 * position);
+        int next = left ? Board.moveRowLeft(line) : Board.moveRowRight(line);
+        // Nothing moves if neither the line with the new tile nor any other line changes.
+        if (next == line && changed[direction] == (moved[direction][i] != lines[i] ? 1 : 0))
+            return 0;
+        long board = movedBoards[direction] & ~(0xFFFFL << (16 * i)) | (long) next << (16 * i);
+        return movedScores[direction] - Heuristic.line(moved[direction][i]) + Heuristic.line(next)
+                + Heuristic.rows(Board.transpose(board));
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.game2048.ai;
+
+import com.example.game2048.core.Board;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Board evaluation by an n-tuple network, trained by {@link TdTrainer}.
+ * Every pattern is a tuple of grids; the exponents found in them index a table of weights, and the value of a board is
+ * the sum of the weights selected by each pattern in all eight rotations and reflections of the board.
+ * Weights are kept in plain {@code float[]} tables which trainer threads update without locking, a lost update now
+ * and then does not hurt the learning.
+ * <p>
+ * File layout, little endian: {@link #MAGIC}, the format version and the number of patterns, every pattern as its
+ * length followed by its grids, then the tables of all patterns in order.
+ */
+public final class NTupleNetwork implements Evaluator {
+    static final int MAGIC = 0x4E545550;
+    static final int VERSION = 1;
+    // The longest tuple a file may hold, whose table has 16^6 weights like those of LARGE.
+    static final int MAX_TUPLE_LENGTH = 6;
+    /**
+     * System property naming a weights file used by {@link Expectimax} instead of {@link Heuristic}.
+     */
+    public static final String PROPERTY = "game2048.weights";
+
+    /**
+     * Rows and squares of four grids, 1 MB of weights.
+     */
+    public static final int[][] SMALL = {
+            {0, 1, 2, 3}, {4, 5, 6, 7}, {0, 1, 4, 5}, {1, 2, 5, 6}
+    };
+    /**
+     * Four tuples of six grids, 256 MB of weights but much stronger play.
+     */
+    public static final int[][] LARGE = {
+            {0, 1, 2, 3, 4, 5}, {4, 5, 6, 7, 8, 9}, {0, 1, 2, 4, 5, 6}, {4, 5, 6, 8, 9, 10}
+    };
+
+    private final int[][] patterns;
+    // Grids of every pattern in every symmetry, indexed by pattern * 8 + symmetry.
+    private final int[][] grids;
+    final float[][] tables;
+
+    public NTupleNetwork(int[][] patterns) {
+        this.patterns = patterns;
+        grids = new int[patterns.length * 8][];
+        tables = new float[patterns.length][];
+        for (int p = 0; p < patterns.length; p++) {
+            tables[p] = new float[1 << (4 * patterns[p].length)];
+            for (int s = 0; s < 8; s++) {
+                int[] cells = new int[patterns[p].length];
+                for (int k = 0; k < cells.length; k++) {
+                    cells[k] = transform(patterns[p][k], s);
+                }
+                grids[p * 8 + s] = cells;
+            }
+        }
+    }
+
+    /**
+     * Maps a grid index to its place after rotating the board {@code s % 4} times and mirroring it if {@code s >= 4}.
+     */
+    private static int transform(int grid, int s) {
+        int x = grid / 4;
+        int y = grid % 4;
+        for (int r = 0; r < (s & 3); r++) {
+            int t = x;
+            x = y;
+            y = 3 - t;
+        }
+        if (s >= 4)
+            y = 3 - y;
+        return x * 4 + y;
+    }
+
+    private static int index(long board, int[] cells) {
+        int index = 0;
+        for (int k = 0; k < cells.length; k++) {
+            index |= (int) ((board >>> (4 * cells[k])) & 0xF) << (4 * k);
+        }
+        return index;
+    }
+
+    /**
+     * @return true, the value of a board excludes the reward of the move that led to it, see {@link TdTrainer}.
+     */
+    @Override
+    public boolean excludesMoveReward() {
+        return true;
+    }
+
+    @Override
+    public float evaluate(long board) {
+        float sum = 0;
+        for (int i = 0; i < grids.length; i++) {
+            sum += tables[i >> 3][index(board, grids[i])];
+        }
+        return sum;
+    }
+
+    /**
+     * Adds to every weight selected by a board.
+     *
+     * @param board the packed board.
+     * @param delta the amount added to each weight.
+     */
+    void update(long board, float delta) {
+        for (int i = 0; i < grids.length; i++) {
+            tables[i >> 3][index(board, grids[i])] += delta;
+        }
+    }
+
+    /**
+     * @return the number of weights selected by a board.
+     */
+    int features() {
+        return grids.length;
+    }
+
+    /**
+     * Writes the patterns and weights to a file.
+     *
+     * @param path the weights file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path path) throws IOException {
+        int headerInts = 3;
+        for (int[] pattern : patterns) {
+            headerInts += 1 + pattern.length;
+        }
+        ByteBuffer header = ByteBuffer.allocate(4 * headerInts).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(patterns.length);
+        for (int[] pattern : patterns) {
+            header.putInt(pattern.length);
+            for (int grid : pattern) {
+                header.putInt(grid);
+            }
+        }
+        header.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining())
+                channel.write(header);
+            ByteBuffer chunk = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            for (float[] table : tables) {
+                for (int i = 0; i < table.length; ) {
+                    int n = Math.min(table.length - i, chunk.capacity() / 4);
+                    chunk.clear();
+                    chunk.asFloatBuffer().put(table, i, n);
+                    chunk.limit(4 * n);
+                    while (chunk.hasRemaining())
+                        channel.write(chunk);
+                    i += n;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads patterns and weights from a memory mapped file.
+     *
+     * @param path the weights file.
+     * @return the network.
+     * @throws IOException if the file cannot be read, is not a weights file or its header is corrupt.
+     */
+    public static NTupleNetwork load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+                throw new IOException("not a weights file");
+            // The header is checked before anything is allocated for it, every pattern takes at least 8 bytes.
+            int count = buffer.getInt();
+            if (count < 1 || count > buffer.remaining() / 8)
+                throw new IOException("bad number of patterns: " + count);
+            int[][] patterns = new int[count][];
+            long expected = 0;
+            for (int p = 0; p < count; p++) {
+                if (buffer.remaining() < 4)
+                    throw new IOException("truncated weights file");
+                int length = buffer.getInt();
+                if (length < 1 || length > MAX_TUPLE_LENGTH || buffer.remaining() < 4 * length)
+                    throw new IOException("bad pattern length: " + length);
+                patterns[p] = new int[length];
+                for (int k = 0; k < length; k++) {
+                    int grid = buffer.getInt();
+                    if (grid < 0 || grid >= Board.GRIDS)
+                        throw new IOException("bad grid in pattern: " + grid);
+                    patterns[p][k] = grid;
+                }
+                expected += 4L << (4 * length);
+            }
+            if (buffer.remaining() != expected)
+                throw new IOException("truncated weights file");
+            NTupleNetwork network = new NTupleNetwork(patterns);
+            for (float[] table : network.tables) {
+                buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(table);
+                buffer.position(buffer.position() + 4 * table.length);
+            }
+            return network;
+        }
+    }
+
+    /**
+     * Returns the network named by the {@value #PROPERTY} system property, loaded once.
+     *
+     * @return the network, null if the property is not set or the file cannot be loaded.
+     */
+    public static NTupleNetwork fromSystemProperty() {
+        return DefaultHolder.NETWORK;
+    }
+
+    private static final class DefaultHolder {
+        static final NTupleNetwork NETWORK = load();
+
+        private static NTupleNetwork load() {
+            String path = System.getProperty(PROPERTY);
+            if (path == null || !Files.isReadable(Paths.get(path)))
+                return null;
+            try {
+                return NTupleNetwork.load(Paths.get(path));
+            } catch (IOException e) {
+                System.err.println("Cannot load weights " + path + ": " + e.getMessage());
+                return null;
+            }
+        }
+    }
+}
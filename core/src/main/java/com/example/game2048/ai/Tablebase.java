@@ -0,0 +1,140 @@
+package com.example.game2048.ai;
+
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.Symmetry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read only table of solved positions written by {@link TablebaseGenerator}.
+ * The file is memory mapped and searched in place, so opening it costs nothing and lookups never touch the disk once
+ * the pages are cached. Thread safe.
+ * <p>
+ * Layout, big endian: a header of {@link #MAGIC}, the format version, the side of the boards and the number of
+ * records, followed by records sorted by board. Every record holds the packed {@link Symmetry#canonical(long)
+ * canonical} board (long), the value of the best move (float) and the ordinal of the best move on the canonical board
+ * (int). Other boards are looked up by their canonical form.
+ */
+public final class Tablebase {
+    static final int MAGIC = 0x32303438;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 16;
+    /**
+     * System property naming the 4x4 table used by {@link Expectimax}.
+     */
+    public static final String PROPERTY = "game2048.tablebase";
+
+    private final ByteBuffer buffer;
+    private final int side;
+    private final int size;
+
+    private Tablebase(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+            throw new IOException("not a tablebase file");
+        this.buffer = buffer;
+        side = buffer.getInt(8);
+        size = buffer.getInt(12);
+        if (buffer.capacity() < HEADER_BYTES + (long) size * RECORD_BYTES)
+            throw new IOException("truncated tablebase file");
+    }
+
+    /**
+     * Maps a table into memory.
+     *
+     * @param path the table file.
+     * @return the table.
+     * @throws IOException if the file cannot be read or is not a table.
+     */
+    public static Tablebase open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Tablebase(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Returns the 4x4 table named by the {@value #PROPERTY} system property, opened once.
+     *
+     * @return the table, null if the property is not set or the table cannot be opened.
+     */
+    public static Tablebase fromSystemProperty() {
+        return DefaultHolder.TABLE;
+    }
+
+    private static final class DefaultHolder {
+        static final Tablebase TABLE = load();
+
+        private static Tablebase load() {
+            String path = System.getProperty(PROPERTY);
+            if (path == null || !Files.isReadable(Paths.get(path)))
+                return null;
+            try {
+                Tablebase table = open(Paths.get(path));
+                return table.side() == 4 ? table : null;
+            } catch (IOException e) {
+                System.err.println("Cannot open tablebase " + path + ": " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    public int side() {
+        return side;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private long canonical(long board) {
+        return Symmetry.transform(board, side, Symmetry.canonicalTransform(board, side));
+    }
+
+    private int find(long board) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long key = buffer.getLong(HEADER_BYTES + mid * RECORD_BYTES);
+            if (key < board) {
+                lo = mid + 1;
+            } else if (key > board) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Looks up the best move of a position.
+     *
+     * @param board the packed board.
+     * @return the best direction, null if the position is not in the table.
+     */
+    public Direction bestMove(long board) {
+        int t = Symmetry.canonicalTransform(board, side);
+        int i = find(Symmetry.transform(board, side, t));
+        if (i < 0)
+            return null;
+        return Symmetry.toOriginal(Direction.of(buffer.getInt(HEADER_BYTES + i * RECORD_BYTES + 12)), t);
+    }
+
+    /**
+     * Looks up the value of the best move of a position.
+     *
+     * @param board the packed board.
+     * @return the value, NaN if the position is not in the table.
+     */
+    public float value(long board) {
+        int i = find(canonical(board));
+        return i < 0 ? Float.NaN : buffer.getFloat(HEADER_BYTES + i * RECORD_BYTES + 8);
+    }
+}
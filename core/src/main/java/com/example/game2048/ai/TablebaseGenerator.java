@@ -0,0 +1,223 @@
+package com.example.game2048.ai;
+
+import com.example.game2048.core.Board;
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.SmallBoard;
+import com.example.game2048.core.Symmetry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Offline generator of {@link Tablebase} files.
+ * Enumerates every position reachable from the starting positions within a number of moves and solves each of them.
+ * Positions are reduced to their canonical form first, so only one of up to eight symmetric positions is stored.
+ * Boards smaller than 4x4 are solved exactly: the value is the expected score still to be gained with optimal play,
+ * either until the game is over or within a horizon of moves. 4x4 positions are solved by a deep {@link Expectimax}
+ * search and the value is its heuristic score.
+ * <p>
+ * Usage: {@code TablebaseGenerator <side> <moves> <depth> <output>}, where depth is the horizon for small boards
+ * (0 plays until the game is over) and the search depth for 4x4. For example {@code 2 100 0 2x2.tb} solves the whole
+ * 2x2 game and {@code 4 3 5 opening.tb} the first three moves of the 4x4 game.
+ */
+public final class TablebaseGenerator {
+    private final int side;
+    private final int depth;
+    private final Expectimax solver;
+    // Exact values of small boards, one map per remaining horizon. Index 0 holds the values without horizon.
+    private final List<Map<Long, Float>> memo = new ArrayList<>();
+
+    TablebaseGenerator(int side, int depth) {
+        if (side < 2 || side > 4)
+            throw new IllegalArgumentException("side must be 2, 3 or 4");
+        this.side = side;
+        this.depth = depth;
+        solver = side == 4 ? new Expectimax(depth, null, null) : null;
+        for (int i = 0; i <= depth; i++) {
+            memo.add(new HashMap<>());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            System.err.println("Usage: TablebaseGenerator <side> <moves> <depth> <output>");
+            System.exit(2);
+        }
+        int side = Integer.parseInt(args[0]);
+        int moves = Integer.parseInt(args[1]);
+        int depth = Integer.parseInt(args[2]);
+        Path output = Paths.get(args[3]);
+
+        TablebaseGenerator generator = new TablebaseGenerator(side, depth);
+        long start = System.nanoTime();
+        long[] positions = generator.reachable(moves);
+        System.out.println(positions.length + " positions reachable within " + moves + " moves");
+        int written = generator.write(positions, output);
+        System.out.printf("%d positions solved in %.1f s%n", written, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Enumerates the positions reachable from the starting positions, which hold two tiles of 2 or 4.
+     *
+     * @param moves the number of moves to follow.
+     * @return the canonical positions, sorted.
+     */
+    long[] reachable(int moves) {
+        int grids = side * side;
+        Set<Long> seen = new HashSet<>();
+        Set<Long> frontier = new HashSet<>();
+        for (int a = 0; a < grids; a++) {
+            for (int b = a + 1; b < grids; b++) {
+                for (int ea = 1; ea <= 2; ea++) {
+                    for (int eb = 1; eb <= 2; eb++) {
+                        frontier.add(canonical((long) ea << (4 * a) | (long) eb << (4 * b)));
+                    }
+                }
+            }
+        }
+        for (int m = 0; m <= moves && !frontier.isEmpty(); m++) {
+            seen.addAll(frontier);
+            if (m == moves)
+                break;
+            Set<Long> next = new HashSet<>();
+            for (long board : frontier) {
+                for (Direction d : Direction.values()) {
+                    long moved = move(board, d, null);
+                    if (moved == board)
+                        continue;
+                    for (int i = 0; i < grids; i++) {
+                        if (((moved >>> (4 * i)) & 0xF) != 0)
+                            continue;
+                        for (long e = 1; e <= 2; e++) {
+                            long child = canonical(moved | e << (4 * i));
+                            if (!seen.contains(child))
+                                next.add(child);
+                        }
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return seen.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    private long canonical(long board) {
+        return Symmetry.transform(board, side, Symmetry.canonicalTransform(board, side));
+    }
+
+    private long move(long board, Direction d, int[] score) {
+        if (side == 4) {
+            if (score != null)
+                score[0] = Board.score(board, d);
+            return Board.move(board, d);
+        }
+        return SmallBoard.move(board, side, d, score);
+    }
+
+    /**
+     * Solves the positions and writes the ones with a legal move to a table file.
+     *
+     * @param positions the positions, sorted.
+     * @param output the table file.
+     * @return the number of records written.
+     * @throws IOException if the file cannot be written.
+     */
+    int write(long[] positions, Path output) throws IOException {
+        ByteBuffer records = ByteBuffer.allocate(positions.length * Tablebase.RECORD_BYTES);
+        int count = 0;
+        for (long board : positions) {
+            Direction best = null;
+            float bestValue = Float.NEGATIVE_INFINITY;
+            for (Direction d : Direction.values()) {
+                float value = moveValue(board, d);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = d;
+                }
+            }
+            if (best == null)
+                continue;
+            records.putLong(board).putFloat(bestValue).putInt(best.ordinal());
+            count++;
+        }
+        records.flip();
+
+        ByteBuffer header = ByteBuffer.allocate(Tablebase.HEADER_BYTES);
+        header.putInt(Tablebase.MAGIC).putInt(Tablebase.VERSION).putInt(side).putInt(count).flip();
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining())
+                channel.write(header);
+            while (records.hasRemaining())
+                channel.write(records);
+        }
+        return count;
+    }
+
+    /**
+     * @return the value of moving in a direction, negative infinity if nothing moves.
+     */
+    private float moveValue(long board, Direction d) {
+        int[] score = new int[1];
+        long moved = move(board, d, score);
+        if (moved == board)
+            return Float.NEGATIVE_INFINITY;
+        if (side == 4)
+            return solver.chanceNode(moved, depth, 1f);
+        if (depth == 1)
+            return score[0];
+        return score[0] + spawnValue(moved, depth == 0 ? 0 : depth - 1);
+    }
+
+    /**
+     * Exact expected score of a small board before a tile is added.
+     *
+     * @param board the board after a move.
+     * @param horizon the number of moves still counted, 0 for no horizon.
+     */
+    private float spawnValue(long board, int horizon) {
+        Map<Long, Float> values = memo.get(horizon);
+        long key = canonical(board);
+        Float cached = values.get(key);
+        if (cached != null)
+            return cached;
+        int grids = side * side;
+        int empty = SmallBoard.emptyCount(board, side);
+        float sum = 0;
+        for (int i = 0; i < grids; i++) {
+            if (((board >>> (4 * i)) & 0xF) != 0)
+                continue;
+            sum += Expectimax.PROB_TWO * bestValue(board | 1L << (4 * i), horizon);
+            sum += Expectimax.PROB_FOUR * bestValue(board | 2L << (4 * i), horizon);
+        }
+        float value = sum / empty;
+        values.put(key, value);
+        return value;
+    }
+
+    private float bestValue(long board, int horizon) {
+        float best = 0;
+        int[] score = new int[1];
+        for (Direction d : Direction.values()) {
+            long moved = move(board, d, score);
+            if (moved == board)
+                continue;
+            if (horizon == 1) {
+                best = Math.max(best, score[0]);
+            } else {
+                best = Math.max(best, score[0] + spawnValue(moved, horizon == 0 ? 0 : horizon - 1));
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.game2048.ai;
+
+import com.example.game2048.core.Board;
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.Game;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Trains an {@link NTupleNetwork} by temporal difference learning on games played against itself.
+ * Every move is chosen greedily by the reward plus the value of the board after the move, and the value of the
+ * previous such board is moved towards the value of the new one (TD(0) on afterstates). Games are played by several
+ * threads at once on headless {@link Game}s, all updating the same weights without locking.
+ * <p>
+ * Usage: {@code TdTrainer <games> <threads> <learning rate> <output> [small|large]}. An existing output file is loaded
+ * first, so training continues where it stopped.
+ */
+public final class TdTrainer {
+    private static final int REPORT_EVERY = 1000;
+
+    private final NTupleNetwork network;
+    private final float alpha;
+    private final AtomicInteger played = new AtomicInteger();
+    private final LongAdder scoreSum = new LongAdder();
+    private final LongAdder reachedTarget = new LongAdder();
+
+    /**
+     * @param network the network to train.
+     * @param learningRate the learning rate per board, shared among the weights a board selects.
+     */
+    public TdTrainer(NTupleNetwork network, float learningRate) {
+        this.network = network;
+        alpha = learningRate / network.features();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 4) {
+            System.err.println("Usage: TdTrainer <games> <threads> <learning rate> <output> [small|large]");
+            System.exit(2);
+        }
+        int games = Integer.parseInt(args[0]);
+        int threads = Integer.parseInt(args[1]);
+        float learningRate = Float.parseFloat(args[2]);
+        Path output = Paths.get(args[3]);
+        int[][] patterns = args.length > 4 && args[4].equals("large") ? NTupleNetwork.LARGE : NTupleNetwork.SMALL;
+
+        NTupleNetwork network = Files.exists(output) ? NTupleNetwork.load(output) : new NTupleNetwork(patterns);
+        long start = System.nanoTime();
+        new TdTrainer(network, learningRate).train(games, threads);
+        System.out.printf("%d games in %.1f s%n", games, (System.nanoTime() - start) / 1e9);
+        network.save(output);
+    }
+
+    /**
+     * Plays games on several threads until the given number of games is played.
+     *
+     * @param games the number of games.
+     * @param threads the number of threads.
+     * @throws InterruptedException if interrupted while waiting for the threads.
+     */
+    public void train(int games, int threads) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        AtomicInteger remaining = new AtomicInteger(games);
+        for (int t = 0; t < threads; t++) {
+            long seed = System.nanoTime() + t;
+            pool.execute(() -> {
+                Random random = new Random(seed);
+                while (remaining.getAndDecrement() > 0) {
+                    playGame(random);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Plays one game, learning from every move.
+     *
+     * @param random the generator used for new tiles.
+     * @return the final score.
+     */
+    int playGame(Random random) {
+        Game game = new Game(random);
+        game.start();
+        long previous = 0;
+        boolean first = true;
+        while (true) {
+            long board = game.getBoard();
+            Direction best = null;
+            float bestValue = Float.NEGATIVE_INFINITY;
+            long bestAfter = 0;
+            for (Direction d : Direction.values()) {
+                long after = Board.move(board, d);
+                if (after == board)
+                    continue;
+                float value = Board.score(board, d) + network.evaluate(after);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = d;
+                    bestAfter = after;
+                }
+            }
+            if (best == null)
+                break;
+            if (!first)
+                network.update(previous, alpha * (bestValue - network.evaluate(previous)));
+            previous = bestAfter;
+            first = false;
+            game.move(best);
+        }
+        if (!first)
+            network.update(previous, -alpha * network.evaluate(previous));
+        report(game);
+        return game.getScore();
+    }
+
+    private void report(Game game) {
+        scoreSum.add(game.getScore());
+        if (Board.maxTile(game.getBoard()) >= Game.TARGET)
+            reachedTarget.increment();
+        int n = played.incrementAndGet();
+        if (n % REPORT_EVERY == 0) {
+            System.out.printf("%d games, mean score %.0f, %.1f%% reached %d%n", n,
+                    scoreSum.sumThenReset() / (double) REPORT_EVERY,
+                    100.0 * reachedTarget.sumThenReset() / REPORT_EVERY, Game.TARGET);
+        }
+    }
+}
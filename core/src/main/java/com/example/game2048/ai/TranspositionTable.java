@@ -0,0 +1,50 @@
+package com.example.game2048.ai;
+
+/**
+ * Fixed size cache of evaluated chance nodes, keyed by the packed board.
+ * Every board maps to exactly one slot and a new entry replaces whatever was stored there, so the table never grows
+ * and lookups touch a single slot. Not thread safe.
+ */
+final class TranspositionTable {
+    private final long[] keys;
+    private final float[] values;
+    private final byte[] depths;
+    private final int mask;
+
+    /**
+     * @param bits log2 of the number of slots.
+     */
+    TranspositionTable(int bits) {
+        int size = 1 << bits;
+        keys = new long[size];
+        values = new float[size];
+        depths = new byte[size];
+        mask = size - 1;
+    }
+
+    private int slot(long board) {
+        long h = board * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32 ^ h) & mask;
+    }
+
+    /**
+     * Looks up a board searched at least as deep as requested.
+     *
+     * @param board the packed board, never 0.
+     * @param depth the remaining search depth needed.
+     * @return the stored value, NaN if there is none.
+     */
+    float get(long board, int depth) {
+        int i = slot(board);
+        if (keys[i] == board && depths[i] >= depth)
+            return values[i];
+        return Float.NaN;
+    }
+
+    void put(long board, int depth, float value) {
+        int i = slot(board);
+        keys[i] = board;
+        depths[i] = (byte) depth;
+        values[i] = value;
+    }
+}
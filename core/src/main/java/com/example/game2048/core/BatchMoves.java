@@ -0,0 +1,63 @@
+package com.example.game2048.core;
+
+/**
+ * Moves many packed boards in the same direction at once, for search frontiers and simulations.
+ * Uses the incubating Vector API when the {@code jdk.incubator.vector} module is resolved (run with
+ * {@code --add-modules jdk.incubator.vector}), and a scalar loop over {@link Board} otherwise or when the
+ * {@code game2048.scalar} system property is set. Both give the same results. Thread safe.
+ */
+public final class BatchMoves {
+    /**
+     * Implementation of the batch move, processing the boards from index 0 to count.
+     */
+    interface Mover {
+        void move(Direction direction, long[] boards, long[] results, int[] scores, int count);
+    }
+
+    static final Mover SCALAR = (direction, boards, results, scores, count) -> {
+        for (int i = 0; i < count; i++) {
+            long board = boards[i];
+            scores[i] = Board.score(board, direction);
+            results[i] = Board.move(board, direction);
+        }
+    };
+
+    private static final Mover MOVER = loadMover();
+
+    private BatchMoves() {
+    }
+
+    private static Mover loadMover() {
+        if (Boolean.getBoolean("game2048.scalar")
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+            return SCALAR;
+        try {
+            return (Mover) Class.forName("com.example.game2048.core.VectorMover")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR;
+        }
+    }
+
+    /**
+     * Moves boards in a direction.
+     *
+     * @param direction the direction to move in.
+     * @param boards the packed boards.
+     * @param results receives the boards after the move, may be {@code boards} itself.
+     * @param scores receives the score gained by each move.
+     * @param count the number of boards, starting at index 0.
+     */
+    public static void move(Direction direction, long[] boards, long[] results, int[] scores, int count) {
+        if (count > boards.length || count > results.length || count > scores.length)
+            throw new IndexOutOfBoundsException("count " + count + " exceeds an array length");
+        MOVER.move(direction, boards, results, scores, count);
+    }
+
+    /**
+     * @return if the Vector API is used.
+     */
+    public static boolean isVectorized() {
+        return MOVER != SCALAR;
+    }
+}
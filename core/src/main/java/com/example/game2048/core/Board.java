@@ -0,0 +1,315 @@
+package com.example.game2048.core;
+
+/**
+ * Operations on a 4x4 board packed into a long.
+ * Every grid takes four bits holding the exponent of its tile (0 for an empty grid, 1 for 2, 2 for 4, ...),
+ * the grid in row x and column y is stored at bits 4 * (x * 4 + y). Moves are looked up per row in precomputed
+ * tables, columns are handled by transposing the board.
+ * <p>
+ * Tiles follow the same rules as {@code Game2048.move}: every tile merges at most once per move. The largest tile a
+ * grid can hold is 32768, two of them do not merge.
+ */
+public final class Board {
+    public static final int SIDE = 4;
+    public static final int GRIDS = SIDE * SIDE;
+    public static final int MAX_EXPONENT = 15;
+
+    private static final long ROW_MASK = 0xFFFFL;
+
+    private static final char[] ROW_LEFT = new char[65536];
+    private static final char[] ROW_RIGHT = new char[65536];
+    private static final int[] SCORE_LEFT = new int[65536];
+    private static final int[] SCORE_RIGHT = new int[65536];
+
+    static {
+        for (int row = 0; row < 65536; row++) {
+            int[] line = unpackRow(row);
+            int score = slide(line);
+            ROW_LEFT[row] = (char) packRow(line);
+            SCORE_LEFT[row] = score;
+
+            int reversed = reverseRow(row);
+            line = unpackRow(reversed);
+            score = slide(line);
+            ROW_RIGHT[row] = (char) reverseRow(packRow(line));
+            SCORE_RIGHT[row] = score;
+        }
+    }
+
+    private Board() {
+    }
+
+    /**
+     * Slides a line of exponents towards index 0, merging equal tiles once. Works for lines of any length, which is
+     * used for boards of other sizes.
+     *
+     * @param line exponents of the line, modified in place.
+     * @return the score gained by merging.
+     */
+    public static int slide(int[] line) {
+        int score = 0;
+        int n = 0;
+        boolean lastMerged = false;
+        for (int i = 0; i < line.length; i++) {
+            int e = line[i];
+            if (e == 0)
+                continue;
+            if (n > 0 && !lastMerged && line[n - 1] == e && e < MAX_EXPONENT) {
+                line[n - 1] = e + 1;
+                score += 1 << (e + 1);
+                lastMerged = true;
+            } else {
+                line[n++] = e;
+                lastMerged = false;
+            }
+        }
+        while (n < line.length)
+            line[n++] = 0;
+        return score;
+    }
+
+    private static int[] unpackRow(int row) {
+        return new int[]{row & 0xF, (row >>> 4) & 0xF, (row >>> 8) & 0xF, (row >>> 12) & 0xF};
+    }
+
+    private static int packRow(int[] line) {
+        return line[0] | line[1] << 4 | line[2] << 8 | line[3] << 12;
+    }
+
+    private static int reverseRow(int row) {
+        return (row >>> 12) | ((row >>> 4) & 0x00F0) | ((row << 4) & 0x0F00) | ((row << 12) & 0xF000);
+    }
+
+    /**
+     * Returns the 16 bit row of a board.
+     *
+     * @param board the packed board.
+     * @param x index of the row.
+     * @return the row, the grid in column 0 in the lowest four bits.
+     */
+    public static int row(long board, int x) {
+        return (int) ((board >>> (16 * x)) & ROW_MASK);
+    }
+
+    /**
+     * Mirrors the board along its main diagonal, turning rows into columns.
+     *
+     * @param board the packed board.
+     * @return the transposed board.
+     */
+    public static long transpose(long board) {
+        long a1 = board & 0xF0F00F0FF0F00F0FL;
+        long a2 = board & 0x0000F0F00000F0F0L;
+        long a3 = board & 0x0F0F00000F0F0000L;
+        long a = a1 | (a2 << 12) | (a3 >>> 12);
+        long b1 = a & 0xFF00FF0000FF00FFL;
+        long b2 = a & 0x00FF00FF00000000L;
+        long b3 = a & 0x00000000FF00FF00L;
+        return b1 | (b2 >>> 24) | (b3 << 24);
+    }
+
+    /**
+     * Moves all tiles of the board in a direction.
+     *
+     * @param board the packed board.
+     * @param direction the direction to move in.
+     * @return the board after the move, equal to {@code board} if nothing can move.
+     */
+    public static long move(long board, Direction direction) {
+        switch (direction) {
+            case UP:
+                return moveUp(board);
+            case DOWN:
+                return moveDown(board);
+            case LEFT:
+                return moveLeft(board);
+            default:
+                return moveRight(board);
+        }
+    }
+
+    /**
+     * Returns the score gained by moving the board in a direction.
+     *
+     * @param board the packed board.
+     * @param direction the direction to move in.
+     * @return the sum of all merged tiles.
+     */
+    public static int score(long board, Direction direction) {
+        switch (direction) {
+            case UP:
+                return rowsScore(transpose(board), SCORE_LEFT);
+            case DOWN:
+                return rowsScore(transpose(board), SCORE_RIGHT);
+            case LEFT:
+                return rowsScore(board, SCORE_LEFT);
+            default:
+                return rowsScore(board, SCORE_RIGHT);
+        }
+    }
+
+    /**
+     * Moves the tiles of a single row to the left.
+     *
+     * @param row the 16 bit row, see {@link #row}.
+     * @return the row after the move.
+     */
+    public static int moveRowLeft(int row) {
+        return ROW_LEFT[row];
+    }
+
+    /**
+     * Moves the tiles of a single row to the right.
+     *
+     * @param row the 16 bit row, see {@link #row}.
+     * @return the row after the move.
+     */
+    public static int moveRowRight(int row) {
+        return ROW_RIGHT[row];
+    }
+
+    public static long moveLeft(long board) {
+        return moveRows(board, ROW_LEFT);
+    }
+
+    public static long moveRight(long board) {
+        return moveRows(board, ROW_RIGHT);
+    }
+
+    public static long moveUp(long board) {
+        return transpose(moveRows(transpose(board), ROW_LEFT));
+    }
+
+    public static long moveDown(long board) {
+        return transpose(moveRows(transpose(board), ROW_RIGHT));
+    }
+
+    private static long moveRows(long board, char[] table) {
+        return (long) table[(int) (board & ROW_MASK)]
+                | (long) table[(int) ((board >>> 16) & ROW_MASK)] << 16
+                | (long) table[(int) ((board >>> 32) & ROW_MASK)] << 32
+                | (long) table[(int) (board >>> 48)] << 48;
+    }
+
+    private static int rowsScore(long board, int[] table) {
+        return table[(int) (board & ROW_MASK)]
+                + table[(int) ((board >>> 16) & ROW_MASK)]
+                + table[(int) ((board >>> 32) & ROW_MASK)]
+                + table[(int) (board >>> 48)];
+    }
+
+    /**
+     * Checks if there is any move available.
+     *
+     * @param board the packed board.
+     * @return if any direction changes the board.
+     */
+    public static boolean canMove(long board) {
+        return moveLeft(board) != board || moveRight(board) != board
+                || moveUp(board) != board || moveDown(board) != board;
+    }
+
+    /**
+     * Returns the exponent of a grid.
+     *
+     * @param board the packed board.
+     * @param x row of the grid
+     * @param y column of the grid
+     * @return the exponent, 0 if the grid is empty.
+     */
+    public static int get(long board, int x, int y) {
+        return (int) ((board >>> (4 * (x * SIDE + y))) & 0xF);
+    }
+
+    /**
+     * Returns a board with one grid replaced.
+     *
+     * @param board the packed board.
+     * @param x row of the grid
+     * @param y column of the grid
+     * @param exponent the new exponent, 0 to clear the grid.
+     * @return the modified board.
+     */
+    public static long with(long board, int x, int y, int exponent) {
+        int shift = 4 * (x * SIDE + y);
+        return (board & ~(0xFL << shift)) | ((long) exponent << shift);
+    }
+
+    /**
+     * Returns the value of a grid.
+     *
+     * @param board the packed board.
+     * @param x row of the grid
+     * @param y column of the grid
+     * @return the tile value, 0 if the grid is empty.
+     */
+    public static int value(long board, int x, int y) {
+        int e = get(board, x, y);
+        return e == 0 ? 0 : 1 << e;
+    }
+
+    /**
+     * Converts a tile value to the exponent stored in a grid.
+     *
+     * @param value the tile value, a power of two or 0.
+     * @return the exponent.
+     */
+    public static int exponentOf(int value) {
+        return value == 0 ? 0 : Integer.numberOfTrailingZeros(value);
+    }
+
+    /**
+     * Counts the empty grids of a board.
+     *
+     * @param board the packed board.
+     * @return the number of empty grids.
+     */
+    public static int emptyCount(long board) {
+        // Folds every nibble into its lowest bit, which is set for non-empty grids.
+        long x = board | (board >>> 2);
+        x |= x >>> 1;
+        return GRIDS - Long.bitCount(x & 0x1111111111111111L);
+    }
+
+    /**
+     * Returns the largest exponent on the board.
+     *
+     * @param board the packed board.
+     * @return the largest exponent, 0 for an empty board.
+     */
+    public static int maxExponent(long board) {
+        int max = 0;
+        for (int i = 0; i < GRIDS; i++) {
+            max = Math.max(max, (int) ((board >>> (4 * i)) & 0xF));
+        }
+        return max;
+    }
+
+    /**
+     * Returns the value of the largest tile on the board.
+     *
+     * @param board the packed board.
+     * @return the value of the largest tile, 0 for an empty board.
+     */
+    public static int maxTile(long board) {
+        int e = maxExponent(board);
+        return e == 0 ? 0 : 1 << e;
+    }
+
+    /**
+     * Formats the board as four lines of tile values, used for logs and repros.
+     *
+     * @param board the packed board.
+     * @return the formatted board.
+     */
+    public static String toString(long board) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < SIDE; i++) {
+            for (int j = 0; j < SIDE; j++) {
+                sb.append(String.format("%6d", value(board, i, j)));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
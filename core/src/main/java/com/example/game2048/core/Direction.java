@@ -0,0 +1,20 @@
+package com.example.game2048.core;
+
+/**
+ * The four directions tiles can be moved in.
+ */
+public enum Direction {
+    UP, DOWN, LEFT, RIGHT;
+
+    private static final Direction[] VALUES = values();
+
+    /**
+     * Returns the direction with the given ordinal without copying the values array.
+     *
+     * @param ordinal the ordinal of the direction, 0 to 3.
+     * @return the direction.
+     */
+    public static Direction of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
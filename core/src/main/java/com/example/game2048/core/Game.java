@@ -0,0 +1,239 @@
+package com.example.game2048.core;
+
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Headless game of 2048 on a packed {@link Board}.
+ * Follows the rules of the Swing and JavaFX {@code Game2048} exactly, including how new tiles draw from the random
+ * generator, so a game seeded the same way plays out the same. Moves, merges, new tiles and changes of the state can be
+ * published as {@link GameEvent}s, see {@link #setPublisher}. Not thread safe.
+ */
+public class Game {
+    public static final int TARGET = 2048;
+
+    public enum State {
+        start, won, running, over
+    }
+
+    /**
+     * The board, score and state after a sequence of moves, and where in the sequence the game stopped.
+     */
+    public static final class Result {
+        private final long board;
+        private final int score;
+        private final State state;
+        private final int end;
+
+        Result(long board, int score, State state, int end) {
+            this.board = board;
+            this.score = score;
+            this.state = state;
+            this.end = end;
+        }
+
+        public long getBoard() {
+            return board;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        /**
+         * @return the index after the last move applied, less than the end of the sequence if the game ended first.
+         */
+        public int getEnd() {
+            return end;
+        }
+    }
+
+    private final Random random;
+    // Set for games drawing their tiles from a sequence, see withTileSequence.
+    private final boolean sequenced;
+    private final long sequenceSeed;
+    private int spawned;
+    private long board;
+    private int score;
+    private State state = State.start;
+    private GameEventPublisher publisher;
+
+    public Game() {
+        this(new Random());
+    }
+
+    public Game(long seed) {
+        this(new Random(seed));
+    }
+
+    public Game(Random random) {
+        this(random, false, 0);
+    }
+
+    private Game(Random random, boolean sequenced, long sequenceSeed) {
+        this.random = random;
+        this.sequenced = sequenced;
+        this.sequenceSeed = sequenceSeed;
+    }
+
+    /**
+     * Creates a game whose new tiles do not depend on the board. The n-th tile of a game is drawn from the seed and n
+     * alone: its value and which of the empty grids, counted from the top left, it goes to. Games with the same seed
+     * get the same draws whatever moves are made, e.g. the players of a race, while the tiles of a game created with
+     * {@link #Game(long)} depend on how many grids are empty.
+     *
+     * @param seed the seed of the sequence.
+     * @return the game.
+     */
+    public static Game withTileSequence(long seed) {
+        return new Game(null, true, seed);
+    }
+
+    /**
+     * Starts the game if it is not running. Sets variables to initial values, adds two tiles to the board.
+     */
+    public void start() {
+        if (state == State.running)
+            return;
+        score = 0;
+        board = 0;
+        spawned = 0;
+        state = State.running;
+        GameEventPublisher events = events();
+        if (events != null)
+            events.stateChanged(board, score, state);
+        addRandomTile();
+        addRandomTile();
+    }
+
+    /**
+     * Moves all tiles in a direction. If any tile moves, adds a tile to the board and changes the state of the game
+     * if needed.
+     *
+     * @param direction the direction to move in.
+     * @return if any tile is moved.
+     */
+    public boolean move(Direction direction) {
+        long next = Board.move(board, direction);
+        if (next == board)
+            return false;
+        score += Board.score(board, direction);
+        GameEventPublisher events = events();
+        if (events != null)
+            events.moved(board, direction, next, score, state);
+        board = next;
+        addRandomTile();
+        State before = state;
+        if (!Board.canMove(board)) {
+            state = State.over;
+        }
+        if (score == TARGET) {
+            state = State.won;
+        }
+        if (state != before && (events = events()) != null)
+            events.stateChanged(board, score, state);
+        return true;
+    }
+
+    /**
+     * Applies moves one after another while the game is running, without anything in between, e.g. the batched input
+     * of a network client or a test bot. Moves that change nothing are skipped like single ones.
+     *
+     * @param moves the moves.
+     * @return the result after the moves.
+     */
+    public Result applyMoves(Direction... moves) {
+        return applyMoves(moves, 0, moves.length);
+    }
+
+    /**
+     * Applies a range of moves one after another while the game is running, see {@link #applyMoves(Direction...)}.
+     *
+     * @param moves the moves.
+     * @param from the index of the first move.
+     * @param to the index after the last move.
+     * @return the result after the moves.
+     * @throws IndexOutOfBoundsException if the range is not within the moves, checked before any move is applied.
+     */
+    public Result applyMoves(Direction[] moves, int from, int to) {
+        Objects.checkFromToIndex(from, to, moves.length);
+        int i = from;
+        while (i < to && state == State.running) {
+            move(moves[i++]);
+        }
+        return new Result(board, score, state, i);
+    }
+
+    /**
+     * Adds a tile with the value 2 or 4 to a random empty grid.
+     */
+    void addRandomTile() {
+        if (sequenced) {
+            addSequencedTile();
+            return;
+        }
+        int row, col;
+        do {
+            row = random.nextInt(Board.SIDE);
+            col = random.nextInt(Board.SIDE);
+        } while (Board.get(board, row, col) != 0);
+        int exponent = random.nextInt(2) == 0 ? 1 : 2;
+        board = Board.with(board, row, col, exponent);
+        GameEventPublisher events = events();
+        if (events != null)
+            events.spawned(row, col, exponent, board, score, state);
+    }
+
+    /**
+     * Adds the next tile of the sequence: a SplitMix64 hash of the seed and the number of the tile picks the value and
+     * the rank of the empty grid.
+     */
+    private void addSequencedTile() {
+        long z = sequenceSeed + ++spawned * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        int exponent = (z & 1) == 0 ? 1 : 2;
+        int rank = (int) (((z >>> 32) * Board.emptyCount(board)) >>> 32);
+        for (int i = 0; i < Board.GRIDS; i++) {
+            if (((board >>> (4 * i)) & 0xF) == 0 && rank-- == 0) {
+                int row = i / Board.SIDE;
+                int col = i % Board.SIDE;
+                board = Board.with(board, row, col, exponent);
+                GameEventPublisher events = events();
+                if (events != null)
+                    events.spawned(row, col, exponent, board, score, state);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Publishes the events of this game from now on. The events are offered by the thread playing the game.
+     *
+     * @param publisher the publisher, null to stop publishing.
+     */
+    public void setPublisher(GameEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    private GameEventPublisher events() {
+        return publisher != null && publisher.hasSubscribers() ? publisher : null;
+    }
+
+    public long getBoard() {
+        return board;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public State getState() {
+        return state;
+    }
+}
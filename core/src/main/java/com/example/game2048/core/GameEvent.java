@@ -0,0 +1,114 @@
+package com.example.game2048.core;
+
+/**
+ * Something that happened in a {@link Game}, delivered to the subscribers of a {@link GameEventPublisher}. A move that
+ * changes the board is followed by a {@link Type#MERGE} for every merged tile, the {@link Type#SPAWN} of the new tile
+ * and, if the game ended, a {@link Type#STATE}. Every event carries the board, score and state right after it.
+ */
+public final class GameEvent {
+    public enum Type {
+        /**
+         * Tiles moved in a direction. The board is the one after the move, before the new tile is added.
+         */
+        MOVE,
+        /**
+         * Two tiles merged into the tile at the row and column, with the exponent of the merged tile.
+         */
+        MERGE,
+        /**
+         * A new tile was added at the row and column, with its exponent.
+         */
+        SPAWN,
+        /**
+         * The state of the game changed, e.g. to {@link Game.State#over}.
+         */
+        STATE
+    }
+
+    private final Type type;
+    private final Direction direction;
+    private final int x;
+    private final int y;
+    private final int exponent;
+    private final long board;
+    private final int score;
+    private final Game.State state;
+
+    GameEvent(Type type, Direction direction, int x, int y, int exponent, long board, int score, Game.State state) {
+        this.type = type;
+        this.direction = direction;
+        this.x = x;
+        this.y = y;
+        this.exponent = exponent;
+        this.board = board;
+        this.score = score;
+        this.state = state;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the direction of the move, for moves and merges, null otherwise.
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * @return the row of the merged or new tile, 0 for other events.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @return the column of the merged or new tile, 0 for other events.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * @return the exponent of the merged or new tile, 0 for other events.
+     */
+    public int getExponent() {
+        return exponent;
+    }
+
+    /**
+     * @return the packed board after the event.
+     */
+    public long getBoard() {
+        return board;
+    }
+
+    /**
+     * @return the score after the event.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return the state after the event.
+     */
+    public Game.State getState() {
+        return state;
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case MOVE:
+                return "MOVE " + direction + " score " + score;
+            case MERGE:
+                return "MERGE " + (1 << exponent) + " at " + x + "," + y;
+            case SPAWN:
+                return "SPAWN " + (1 << exponent) + " at " + x + "," + y;
+            default:
+                return "STATE " + state;
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.example.game2048.core;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes the {@link GameEvent}s of the games it is set on, see {@link Game#setPublisher}, e.g. to an analytics
+ * pipeline. Every subscriber has its own ring buffer of a fixed capacity. The thread playing the game only writes the
+ * primitive fields of an event into the buffers, and the events are created and handed to the subscribers by tasks
+ * on an executor, as far as they requested them. Without subscribers a game does not even record its events.
+ * <p>
+ * With {@link Policy#DROP} a full buffer drops the event for that subscriber and the game goes on, so a slow or
+ * stalled subscriber never slows a game down. With {@link Policy#BLOCK} the game waits for room instead, so the
+ * subscriber sees every event but the game plays at its pace.
+ * <p>
+ * Events are offered by one thread at a time: set a publisher on one game, or on games played one after another by
+ * the same thread. Subscribing, requesting and cancelling work from any thread.
+ */
+public final class GameEventPublisher implements Flow.Publisher<GameEvent>, AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * What to do with an event for a subscriber whose buffer is full.
+     */
+    public enum Policy {
+        /**
+         * Drops the event for that subscriber, see {@link #getDropped()}.
+         */
+        DROP,
+        /**
+         * Waits until the subscriber has taken an event. A subscriber that stops requesting stops the game.
+         */
+        BLOCK
+    }
+
+    private static final Subscription[] NONE = new Subscription[0];
+    private static final GameEvent.Type[] TYPES = GameEvent.Type.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final Game.State[] STATES = Game.State.values();
+    private static final long BLOCK_PARK_NANOS = 10_000L;
+
+    private final int capacity;
+    private final Policy policy;
+    private final Executor executor;
+    private volatile Subscription[] subscriptions = NONE;
+    private volatile boolean closed;
+    // Only changed by the thread offering events.
+    private volatile long dropped;
+
+    /**
+     * Creates a publisher buffering {@value #DEFAULT_CAPACITY} events per subscriber, dropping events when full and
+     * delivering on the common pool.
+     */
+    public GameEventPublisher() {
+        this(DEFAULT_CAPACITY, Policy.DROP, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param capacity the number of events buffered per subscriber, a power of two.
+     * @param policy what to do when the buffer of a subscriber is full.
+     * @param executor runs the delivery to the subscribers, one task at a time per subscriber.
+     */
+    public GameEventPublisher(int capacity, Policy policy, Executor executor) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("The capacity must be a power of two: " + capacity);
+        this.capacity = capacity;
+        this.policy = Objects.requireNonNull(policy);
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    /**
+     * Adds a subscriber, which gets the events offered after it was added and completes when the publisher is closed.
+     *
+     * @param subscriber the subscriber.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        Subscription subscription = new Subscription(this, Objects.requireNonNull(subscriber));
+        subscriber.onSubscribe(subscription);
+        synchronized (this) {
+            if (!closed) {
+                Subscription[] current = subscriptions;
+                Subscription[] added = Arrays.copyOf(current, current.length + 1);
+                added[current.length] = subscription;
+                subscriptions = added;
+                return;
+            }
+        }
+        subscription.complete();
+    }
+
+    /**
+     * @return if any subscriber gets events.
+     */
+    public boolean hasSubscribers() {
+        return subscriptions.length != 0;
+    }
+
+    /**
+     * @return the number of events dropped for full buffers, counted once per subscriber.
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Stops publishing. Subscribers get the events still buffered and then complete.
+     */
+    @Override
+    public void close() {
+        Subscription[] current;
+        synchronized (this) {
+            if (closed)
+                return;
+            closed = true;
+            current = subscriptions;
+            subscriptions = NONE;
+        }
+        for (Subscription subscription : current) {
+            subscription.complete();
+        }
+    }
+
+    private synchronized void remove(Subscription subscription) {
+        Subscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == subscription) {
+                Subscription[] removed = Arrays.copyOf(current, current.length - 1);
+                System.arraycopy(current, i + 1, removed, i, current.length - i - 1);
+                subscriptions = removed;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Offers a move and the tiles it merged.
+     *
+     * @param before the board before the move.
+     * @param direction the direction of the move.
+     * @param after the board after the move, before a tile is added.
+     * @param score the score after the move.
+     * @param state the state of the game.
+     */
+    void moved(long before, Direction direction, long after, int score, Game.State state) {
+        publish(GameEvent.Type.MOVE, direction, 0, 0, 0, after, score, state);
+        // Slides every line again like Board.slide to find where tiles merged.
+        for (int line = 0; line < Board.SIDE; line++) {
+            int n = 0;
+            int last = 0;
+            boolean lastMerged = false;
+            for (int i = 0; i < Board.SIDE; i++) {
+                int e = Board.get(before, x(direction, line, i), y(direction, line, i));
+                if (e == 0)
+                    continue;
+                if (n > 0 && !lastMerged && last == e && e < Board.MAX_EXPONENT) {
+                    publish(GameEvent.Type.MERGE, direction, x(direction, line, n - 1), y(direction, line, n - 1),
+                            e + 1, after, score, state);
+                    lastMerged = true;
+                } else {
+                    last = e;
+                    n++;
+                    lastMerged = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Offers a new tile.
+     */
+    void spawned(int x, int y, int exponent, long board, int score, Game.State state) {
+        publish(GameEvent.Type.SPAWN, null, x, y, exponent, board, score, state);
+    }
+
+    /**
+     * Offers a change of the state.
+     */
+    void stateChanged(long board, int score, Game.State state) {
+        publish(GameEvent.Type.STATE, null, 0, 0, 0, board, score, state);
+    }
+
+    // Row and column of the i-th grid of a line, counted in the direction of the move.
+    private static int x(Direction direction, int line, int i) {
+        switch (direction) {
+            case UP:
+                return i;
+            case DOWN:
+                return Board.SIDE - 1 - i;
+            default:
+                return line;
+        }
+    }
+
+    private static int y(Direction direction, int line, int i) {
+        switch (direction) {
+            case LEFT:
+                return i;
+            case RIGHT:
+                return Board.SIDE - 1 - i;
+            default:
+                return line;
+        }
+    }
+
+    private void publish(GameEvent.Type type, Direction direction, int x, int y, int exponent, long board, int score,
+                         Game.State state) {
+        // The score in the high half, the rest in 15 bits: type, direction + 1, row, column, exponent and state.
+        long info = (long) score << 32 | type.ordinal() | (direction == null ? 0 : direction.ordinal() + 1) << 2
+                | x << 5 | y << 7 | exponent << 9 | state.ordinal() << 13;
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(board, info);
+        }
+    }
+
+    private static GameEvent event(long board, long info) {
+        int bits = (int) info;
+        int direction = (bits >>> 2) & 7;
+        return new GameEvent(TYPES[bits & 3], direction == 0 ? null : DIRECTIONS[direction - 1], (bits >>> 5) & 3,
+                (bits >>> 7) & 3, (bits >>> 9) & 0xF, board, (int) (info >>> 32), STATES[(bits >>> 13) & 3]);
+    }
+
+    /**
+     * The ring buffer of one subscriber. The thread offering events only advances the tail, the delivery task only the
+     * head. At most one delivery task is scheduled or running at a time, so the subscriber is called by one thread at a
+     * time.
+     */
+    private static final class Subscription implements Flow.Subscription, Runnable {
+        private static final VarHandle HEAD;
+        private static final VarHandle TAIL;
+        private static final VarHandle DEMAND;
+        private static final VarHandle SCHEDULED;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                HEAD = lookup.findVarHandle(Subscription.class, "head", long.class);
+                TAIL = lookup.findVarHandle(Subscription.class, "tail", long.class);
+                DEMAND = lookup.findVarHandle(Subscription.class, "demand", long.class);
+                SCHEDULED = lookup.findVarHandle(Subscription.class, "scheduled", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private final GameEventPublisher publisher;
+        private final Flow.Subscriber<? super GameEvent> subscriber;
+        private final long[] boards;
+        private final long[] infos;
+        private final int mask;
+        // Positions of the next event to deliver and the next to write, increasing forever.
+        private long head;
+        private long tail;
+        private long demand;
+        private int scheduled;
+        private volatile boolean completing;
+        private volatile Throwable error;
+        // Set once the subscriber was cancelled, completed or failed, after which it is not called again.
+        private volatile boolean done;
+
+        Subscription(GameEventPublisher publisher, Flow.Subscriber<? super GameEvent> subscriber) {
+            this.publisher = publisher;
+            this.subscriber = subscriber;
+            boards = new long[publisher.capacity];
+            infos = new long[publisher.capacity];
+            mask = publisher.capacity - 1;
+        }
+
+        void offer(long board, long info) {
+            if (done)
+                return;
+            long t = tail;
+            if (t - (long) HEAD.getAcquire(this) == boards.length) {
+                if (publisher.policy == Policy.DROP) {
+                    publisher.dropped++;
+                    return;
+                }
+                while (t - (long) HEAD.getAcquire(this) == boards.length) {
+                    if (done)
+                        return;
+                    signal();
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                }
+            }
+            int i = (int) t & mask;
+            boards[i] = board;
+            infos[i] = info;
+            // Volatile, so either this thread sees the delivery still scheduled or the delivery sees the new tail.
+            TAIL.setVolatile(this, t + 1);
+            signal();
+        }
+
+        void complete() {
+            completing = true;
+            signal();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Requested " + n + " events, must be positive");
+            } else {
+                long d;
+                do {
+                    d = (long) DEMAND.getVolatile(this);
+                } while (!DEMAND.compareAndSet(this, d, d + n < 0 ? Long.MAX_VALUE : d + n));
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            publisher.remove(this);
+        }
+
+        private boolean hasWork() {
+            if (done)
+                return false;
+            if (error != null)
+                return true;
+            long buffered = (long) TAIL.getVolatile(this) - (long) HEAD.getAcquire(this);
+            return buffered > 0 ? (long) DEMAND.getVolatile(this) > 0 : completing;
+        }
+
+        private void signal() {
+            if ((int) SCHEDULED.getVolatile(this) == 0 && hasWork() && SCHEDULED.compareAndSet(this, 0, 1))
+                publisher.executor.execute(this);
+        }
+
+        /**
+         * Delivers the buffered events as far as requested.
+         */
+        @Override
+        public void run() {
+            while (true) {
+                if (!done && error != null) {
+                    cancel();
+                    subscriber.onError(error);
+                }
+                long h = head;
+                long t = (long) TAIL.getAcquire(this);
+                long d = (long) DEMAND.getAcquire(this);
+                long n = 0;
+                while (h < t && n < d && !done) {
+                    int i = (int) h & mask;
+                    GameEvent event = event(boards[i], infos[i]);
+                    // The slot can be reused once the event is read.
+                    HEAD.setRelease(this, ++h);
+                    n++;
+                    try {
+                        subscriber.onNext(event);
+                    } catch (Throwable e) {
+                        cancel();
+                    }
+                }
+                if (n > 0 && d != Long.MAX_VALUE)
+                    DEMAND.getAndAdd(this, -n);
+                if (completing && h == t && !done) {
+                    cancel();
+                    subscriber.onComplete();
+                }
+                // Volatile, so either this task sees new work or the thread adding it sees no task scheduled.
+                SCHEDULED.setVolatile(this, 0);
+                if (!hasWork() || !SCHEDULED.compareAndSet(this, 0, 1))
+                    return;
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.game2048.core;
+
+/**
+ * Operations on square boards of side 2 to 4 packed into a long like {@link Board}: the grid in row x and column y
+ * takes the four bits at 4 * (x * side + y). A 4x4 board has the same layout as {@link Board}, which should be
+ * preferred for it as it is much faster. Used by offline tools working on smaller variants of the game.
+ */
+public final class SmallBoard {
+    private SmallBoard() {
+    }
+
+    public static int get(long board, int side, int x, int y) {
+        return (int) ((board >>> (4 * (x * side + y))) & 0xF);
+    }
+
+    public static long with(long board, int side, int x, int y, int exponent) {
+        int shift = 4 * (x * side + y);
+        return (board & ~(0xFL << shift)) | ((long) exponent << shift);
+    }
+
+    /**
+     * Moves all tiles of the board in a direction.
+     *
+     * @param board the packed board.
+     * @param side number of rows and columns.
+     * @param direction the direction to move in.
+     * @param score receives the score gained in its first element, may be null.
+     * @return the board after the move, equal to {@code board} if nothing can move.
+     */
+    public static long move(long board, int side, Direction direction, int[] score) {
+        long result = 0;
+        int gained = 0;
+        int[] line = new int[side];
+        for (int k = 0; k < side; k++) {
+            for (int m = 0; m < side; m++) {
+                line[m] = get(board, side, lineRow(direction, side, k, m), lineCol(direction, side, k, m));
+            }
+            gained += Board.slide(line);
+            for (int m = 0; m < side; m++) {
+                result = with(result, side, lineRow(direction, side, k, m), lineCol(direction, side, k, m), line[m]);
+            }
+        }
+        if (score != null)
+            score[0] = gained;
+        return result;
+    }
+
+    // Row and column of the m-th grid of line k, counted from the edge the tiles move towards.
+    private static int lineRow(Direction direction, int side, int k, int m) {
+        switch (direction) {
+            case UP:
+                return m;
+            case DOWN:
+                return side - 1 - m;
+            default:
+                return k;
+        }
+    }
+
+    private static int lineCol(Direction direction, int side, int k, int m) {
+        switch (direction) {
+            case LEFT:
+                return m;
+            case RIGHT:
+                return side - 1 - m;
+            default:
+                return k;
+        }
+    }
+
+    public static boolean canMove(long board, int side) {
+        for (Direction d : Direction.values()) {
+            if (move(board, side, d, null) != board)
+                return true;
+        }
+        return false;
+    }
+
+    public static int emptyCount(long board, int side) {
+        int empty = 0;
+        for (int i = 0; i < side * side; i++) {
+            if (((board >>> (4 * i)) & 0xF) == 0)
+                empty++;
+        }
+        return empty;
+    }
+}
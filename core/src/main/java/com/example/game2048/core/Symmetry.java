@@ -0,0 +1,185 @@
+package com.example.game2048.core;
+
+/**
+ * The eight rotations and reflections of a board, which all have the same game value.
+ * A transform is numbered 0 to 7: if bit 2 is set the board is transposed first, then bit 0 mirrors the columns
+ * (left and right swap) and bit 1 mirrors the rows (up and down swap). Transform 0 is the identity.
+ * <p>
+ * Caches key on the {@link #canonical(long) canonical} board, the smallest of the eight, so all symmetric positions
+ * share one entry. A move found on the canonical board is mapped back with {@link #toOriginal(Direction, int)}.
+ */
+public final class Symmetry {
+    public static final int COUNT = 8;
+
+    private static final Direction[][] FORWARD = new Direction[COUNT][4];
+    private static final Direction[][] BACKWARD = new Direction[COUNT][4];
+
+    static {
+        for (int t = 0; t < COUNT; t++) {
+            for (Direction d : Direction.values()) {
+                Direction f = d;
+                if ((t & 4) != 0)
+                    f = transposed(f);
+                if ((t & 1) != 0)
+                    f = mirroredColumns(f);
+                if ((t & 2) != 0)
+                    f = mirroredRows(f);
+                FORWARD[t][d.ordinal()] = f;
+                BACKWARD[t][f.ordinal()] = d;
+            }
+        }
+    }
+
+    private Symmetry() {
+    }
+
+    private static Direction transposed(Direction d) {
+        switch (d) {
+            case UP:
+                return Direction.LEFT;
+            case LEFT:
+                return Direction.UP;
+            case DOWN:
+                return Direction.RIGHT;
+            default:
+                return Direction.DOWN;
+        }
+    }
+
+    private static Direction mirroredColumns(Direction d) {
+        return d == Direction.LEFT ? Direction.RIGHT : d == Direction.RIGHT ? Direction.LEFT : d;
+    }
+
+    private static Direction mirroredRows(Direction d) {
+        return d == Direction.UP ? Direction.DOWN : d == Direction.DOWN ? Direction.UP : d;
+    }
+
+    /**
+     * Applies a transform to a 4x4 board.
+     *
+     * @param board the packed board.
+     * @param t the transform, 0 to 7.
+     * @return the transformed board.
+     */
+    public static long transform(long board, int t) {
+        if ((t & 4) != 0)
+            board = Board.transpose(board);
+        if ((t & 1) != 0)
+            board = mirrorColumns(board);
+        if ((t & 2) != 0)
+            board = mirrorRows(board);
+        return board;
+    }
+
+    private static long mirrorColumns(long b) {
+        return (b & 0x000F000F000F000FL) << 12 | (b & 0x00F000F000F000F0L) << 4
+                | (b & 0x0F000F000F000F00L) >>> 4 | (b & 0xF000F000F000F000L) >>> 12;
+    }
+
+    private static long mirrorRows(long b) {
+        return b << 48 | (b & 0xFFFF0000L) << 16 | (b >>> 16) & 0xFFFF0000L | b >>> 48;
+    }
+
+    /**
+     * Finds the transform turning a 4x4 board into its canonical form.
+     *
+     * @param board the packed board.
+     * @return the transform, 0 to 7.
+     */
+    public static int canonicalTransform(long board) {
+        int best = 0;
+        long min = board;
+        for (int t = 1; t < COUNT; t++) {
+            long b = transform(board, t);
+            if (b < min) {
+                min = b;
+                best = t;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the smallest of the eight symmetric forms of a 4x4 board.
+     *
+     * @param board the packed board.
+     * @return the canonical board.
+     */
+    public static long canonical(long board) {
+        long min = board;
+        for (int t = 1; t < COUNT; t++) {
+            min = Math.min(min, transform(board, t));
+        }
+        return min;
+    }
+
+    /**
+     * Applies a transform to a board of any side packed like {@link SmallBoard}.
+     *
+     * @param board the packed board.
+     * @param side number of rows and columns.
+     * @param t the transform, 0 to 7.
+     * @return the transformed board.
+     */
+    public static long transform(long board, int side, int t) {
+        if (side == Board.SIDE)
+            return transform(board, t);
+        long result = 0;
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                int tx = (t & 4) != 0 ? y : x;
+                int ty = (t & 4) != 0 ? x : y;
+                if ((t & 1) != 0)
+                    ty = side - 1 - ty;
+                if ((t & 2) != 0)
+                    tx = side - 1 - tx;
+                result = SmallBoard.with(result, side, tx, ty, SmallBoard.get(board, side, x, y));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the transform turning a board of any side into its canonical form.
+     *
+     * @param board the packed board.
+     * @param side number of rows and columns.
+     * @return the transform, 0 to 7.
+     */
+    public static int canonicalTransform(long board, int side) {
+        if (side == Board.SIDE)
+            return canonicalTransform(board);
+        int best = 0;
+        long min = board;
+        for (int t = 1; t < COUNT; t++) {
+            long b = transform(board, side, t);
+            if (b < min) {
+                min = b;
+                best = t;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Maps a move on a board to the same move on the transformed board.
+     *
+     * @param direction the move on the original board.
+     * @param t the transform.
+     * @return the move on the transformed board.
+     */
+    public static Direction toTransformed(Direction direction, int t) {
+        return FORWARD[t][direction.ordinal()];
+    }
+
+    /**
+     * Maps a move on a transformed board back to the original board.
+     *
+     * @param direction the move on the transformed board.
+     * @param t the transform.
+     * @return the move on the original board.
+     */
+    public static Direction toOriginal(Direction direction, int t) {
+        return BACKWARD[t][direction.ordinal()];
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.game2048.core;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Batch moves with the incubating Vector API, loaded by {@link BatchMoves} only when the module is available.
+ * Every lane holds one board: rows are cut out with shifts and masks, looked up in the row tables with gathers and
+ * shifted back into place. Columns are moved by transposing all lanes before and after.
+ */
+final class VectorMover implements BatchMoves.Mover {
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+
+    private static final long[] LEFT = new long[65536];
+    private static final long[] RIGHT = new long[65536];
+    private static final long[] SCORE_LEFT = new long[65536];
+    private static final long[] SCORE_RIGHT = new long[65536];
+
+    static {
+        for (int row = 0; row < 65536; row++) {
+            LEFT[row] = Board.moveLeft(row);
+            RIGHT[row] = Board.moveRight(row);
+            SCORE_LEFT[row] = Board.score(row, Direction.LEFT);
+            SCORE_RIGHT[row] = Board.score(row, Direction.RIGHT);
+        }
+    }
+
+    VectorMover() {
+        if (LONGS.length() < 2)
+            throw new IllegalStateException("no vector registers for longs");
+    }
+
+    @Override
+    public void move(Direction direction, long[] boards, long[] results, int[] scores, int count) {
+        boolean columns = direction == Direction.UP || direction == Direction.DOWN;
+        boolean towardsZero = direction == Direction.UP || direction == Direction.LEFT;
+        long[] table = towardsZero ? LEFT : RIGHT;
+        long[] scoreTable = towardsZero ? SCORE_LEFT : SCORE_RIGHT;
+        int[] index = new int[LONGS.length()];
+
+        int bound = LONGS.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += LONGS.length()) {
+            LongVector v = LongVector.fromArray(LONGS, boards, i);
+            if (columns)
+                v = transpose(v);
+            LongVector moved = LongVector.zero(LONGS);
+            LongVector score = LongVector.zero(LONGS);
+            for (int r = 0; r < 4; r++) {
+                LongVector row = v.lanewise(VectorOperators.LSHR, 16 * r).and(0xFFFFL);
+                row.convertShape(VectorOperators.L2I, INTS, 0).reinterpretAsInts().intoArray(index, 0);
+                moved = moved.or(LongVector.fromArray(LONGS, table, 0, index, 0).lanewise(VectorOperators.LSHL, 16 * r));
+                score = score.add(LongVector.fromArray(LONGS, scoreTable, 0, index, 0));
+            }
+            if (columns)
+                moved = transpose(moved);
+            moved.intoArray(results, i);
+            score.convertShape(VectorOperators.L2I, INTS, 0).reinterpretAsInts().intoArray(scores, i);
+        }
+        for (; i < count; i++) {
+            long board = boards[i];
+            scores[i] = Board.score(board, direction);
+            results[i] = Board.move(board, direction);
+        }
+    }
+
+    /**
+     * {@link Board#transpose(long)} on every lane.
+     */
+    private static LongVector transpose(LongVector v) {
+        LongVector a = v.and(0xF0F00F0FF0F00F0FL)
+                .or(v.and(0x0000F0F00000F0F0L).lanewise(VectorOperators.LSHL, 12))
+                .or(v.and(0x0F0F00000F0F0000L).lanewise(VectorOperators.LSHR, 12));
+        return a.and(0xFF00FF0000FF00FFL)
+                .or(a.and(0x00FF00FF00000000L).lanewise(VectorOperators.LSHR, 24))
+                .or(a.and(0x00000000FF00FF00L).lanewise(VectorOperators.LSHL, 24));
+    }
+}
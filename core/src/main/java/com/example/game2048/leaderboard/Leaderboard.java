@@ -0,0 +1,323 @@
+package com.example.game2048.leaderboard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Local leaderboard of final scores.
+ * Scores are counted in buckets of {@link #BUCKET} points indexed by a Fenwick tree, so recording a score, the rank of
+ * a score and every entry of a top list take O(log n) whatever the number of games. All scores of the game are
+ * multiples of 4, so the buckets are exact up to {@link #MAX_SCORE}; larger scores are counted as the maximum.
+ * <p>
+ * Scores are kept in an append-only file of big endian ints, written in batches of {@link #BATCH} and replayed when the
+ * leaderboard is opened. Several processes, e.g. both desktop clients, can share the file: every batch is appended at
+ * the current end of the file while holding a lock on it, and a torn record is only cut off under that lock. Scores
+ * recorded by another process count once the leaderboard is opened again. A batch that fails to be written stays
+ * pending and is written again with the next one, after the part of it that reached the file is cut off. Thread safe:
+ * queries run concurrently, records are exclusive.
+ */
+public final class Leaderboard implements Closeable {
+    public static final int BUCKET = 4;
+    private static final int BUCKETS = 1 << 20;
+    public static final int MAX_SCORE = (BUCKETS - 1) * BUCKET;
+    static final int BATCH = 256;
+    /**
+     * System property naming the file of the default leaderboard.
+     */
+    public static final String PROPERTY = "game2048.leaderboard";
+
+    // Fenwick tree over the buckets, 1-based.
+    private final int[] tree = new int[BUCKETS + 1];
+    private final int[] counts = new int[BUCKETS];
+    private int total;
+    private int[] pending = new int[BATCH];
+    private int pendingCount;
+    private final FileChannel file;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    Leaderboard(FileChannel file) {
+        this.file = file;
+    }
+
+    /**
+     * Creates a leaderboard kept in memory only.
+     *
+     * @return the empty leaderboard.
+     */
+    public static Leaderboard inMemory() {
+        return new Leaderboard(null);
+    }
+
+    /**
+     * Opens a leaderboard file, creating it if needed, and loads its scores.
+     *
+     * @param path the file of scores.
+     * @return the leaderboard.
+     * @throws IOException if the file cannot be read or created.
+     */
+    public static Leaderboard open(Path path) throws IOException {
+        if (path.getParent() != null)
+            Files.createDirectories(path.getParent());
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            return load(channel);
+        } catch (IOException | RuntimeException e) {
+            try {
+                channel.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Loads the scores of a file into a new leaderboard writing to the same file.
+     *
+     * @param channel the file, readable and writable.
+     * @return the leaderboard.
+     * @throws IOException if the file cannot be read.
+     */
+    private static Leaderboard load(FileChannel channel) throws IOException {
+        Leaderboard leaderboard = new Leaderboard(channel);
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        // Locked, so another process is not halfway through a batch that would look torn.
+        try (FileLock ignored = channel.lock()) {
+            long read = 0;
+            long consumed = 0;
+            int n;
+            while ((n = channel.read(buffer, read)) > 0) {
+                read += n;
+                buffer.flip();
+                while (buffer.remaining() >= 4) {
+                    leaderboard.add(buffer.getInt());
+                    consumed += 4;
+                }
+                buffer.compact();
+            }
+            // A torn last write leaves a partial record, which is cut off.
+            channel.truncate(consumed);
+        }
+        return leaderboard;
+    }
+
+    /**
+     * Returns the leaderboard shared by the games of this process, stored in the file named by the {@value #PROPERTY}
+     * system property or {@code .game2048/scores} in the home directory. Falls back to memory if the file cannot be
+     * opened. Pending scores are written when the process exits.
+     *
+     * @return the shared leaderboard.
+     */
+    public static Leaderboard shared() {
+        return SharedHolder.LEADERBOARD;
+    }
+
+    private static final class SharedHolder {
+        static final Leaderboard LEADERBOARD = load();
+
+        private static Leaderboard load() {
+            String name = System.getProperty(PROPERTY);
+            Path path = name != null ? Paths.get(name)
+                    : Paths.get(System.getProperty("user.home"), ".game2048", "scores");
+            Leaderboard leaderboard;
+            try {
+                leaderboard = open(path);
+            } catch (IOException e) {
+                System.err.println("Cannot open leaderboard " + path + ": " + e.getMessage());
+                return inMemory();
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    leaderboard.close();
+                } catch (IOException e) {
+                    System.err.println("Cannot write leaderboard " + path + ": " + e.getMessage());
+                }
+            }, "leaderboard-flush"));
+            return leaderboard;
+        }
+    }
+
+    private static int bucket(int score) {
+        return Math.min(Math.max(score, 0) / BUCKET, BUCKETS - 1);
+    }
+
+    private void add(int score) {
+        int b = bucket(score);
+        counts[b]++;
+        total++;
+        for (int i = b + 1; i <= BUCKETS; i += i & -i) {
+            tree[i]++;
+        }
+    }
+
+    /**
+     * @return the number of scores in buckets 0 to b.
+     */
+    private int prefix(int b) {
+        int sum = 0;
+        for (int i = b + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return the lowest bucket with at least {@code target} scores in it and the buckets below.
+     */
+    private int search(int target) {
+        int pos = 0;
+        for (int step = Integer.highestOneBit(BUCKETS); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next <= BUCKETS && tree[next] < target) {
+                pos = next;
+                target -= tree[next];
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Records the final score of a game. The score counts right away, also if it cannot be written yet.
+     *
+     * @param score the final score.
+     * @throws UncheckedIOException if a batch of scores cannot be written, it is written again with the next one.
+     */
+    public void record(int score) {
+        lock.writeLock().lock();
+        try {
+            add(score);
+            if (file == null)
+                return;
+            if (pendingCount == pending.length)
+                pending = Arrays.copyOf(pending, 2 * pending.length);
+            pending[pendingCount++] = score;
+            if (pendingCount >= BATCH)
+                writePending();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void writePending() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4 * pendingCount);
+        for (int i = 0; i < pendingCount; i++) {
+            buffer.putInt(pending[i]);
+        }
+        buffer.flip();
+        try (FileLock ignored = file.lock()) {
+            // Other processes may have appended since the last batch. A torn record at the end is overwritten.
+            long end = file.size() & ~3L;
+            try {
+                while (buffer.hasRemaining())
+                    file.write(buffer, end + buffer.position());
+            } catch (IOException e) {
+                // The whole batch is written again with the next one, so the part that reached the file is cut off.
+                try {
+                    file.truncate(end);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+        }
+        pendingCount = 0;
+    }
+
+    /**
+     * Writes all recorded scores to the file.
+     *
+     * @throws IOException if the scores cannot be written.
+     */
+    public void flush() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (file != null && pendingCount > 0)
+                writePending();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            flush();
+        } finally {
+            try {
+                if (file != null)
+                    file.close();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * @return the number of recorded scores.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the rank a score would have, 1 for the best. Equal scores share a rank.
+     *
+     * @param score the score.
+     * @return one more than the number of recorded scores better than it.
+     */
+    public int rank(int score) {
+        lock.readLock().lock();
+        try {
+            return total - prefix(bucket(score)) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best scores.
+     *
+     * @param k the maximum number of scores.
+     * @return up to k scores, best first.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public int[] top(int k) {
+        if (k < 0)
+            throw new IllegalArgumentException("Negative number of scores: " + k);
+        lock.readLock().lock();
+        try {
+            int[] result = new int[Math.min(k, total)];
+            int n = 0;
+            while (n < result.length) {
+                // The (n + 1)-th best score is the (total - n)-th smallest.
+                int b = search(total - n);
+                int copies = Math.min(counts[b], result.length - n);
+                Arrays.fill(result, n, n + copies, b * BUCKET);
+                n += copies;
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
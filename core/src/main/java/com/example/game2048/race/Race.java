@@ -0,0 +1,158 @@
+package com.example.game2048.race;
+
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.Game;
+
+/**
+ * Race of several players on the same spawn sequence. Every player plays a {@link Game#withTileSequence tile sequence}
+ * game with the same seed, so the n-th new tile of every player has the same value and goes to the same one of the
+ * empty grids, however differently they played, and the same moves lead to the same boards.
+ * <p>
+ * Each player is moved by one thread at a time, e.g. a key handler or an {@link com.example.game2048.ai.AutoPlayer},
+ * and publishes its board after every move. Spectators read the boards of all players from any thread without
+ * locking, and however many there are, a move only pays for a few stores.
+ */
+public class Race {
+    private final long seed;
+    private final Player[] players;
+
+    /**
+     * @param players the number of players.
+     * @param seed the seed of the spawn sequence shared by the players.
+     */
+    public Race(int players, long seed) {
+        if (players < 1)
+            throw new IllegalArgumentException("A race needs at least one player: " + players);
+        this.seed = seed;
+        this.players = new Player[players];
+        for (int i = 0; i < players; i++) {
+            this.players[i] = new Player(seed);
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int size() {
+        return players.length;
+    }
+
+    public Player player(int i) {
+        return players[i];
+    }
+
+    /**
+     * @return the current board, score and state of every player.
+     */
+    public Snapshot[] snapshots() {
+        Snapshot[] snapshots = new Snapshot[players.length];
+        for (int i = 0; i < players.length; i++) {
+            snapshots[i] = players[i].snapshot();
+        }
+        return snapshots;
+    }
+
+    /**
+     * One player of a race. The game methods must be called by one thread at a time, handing over to another thread
+     * needs a happens-before edge such as starting that thread. Only {@link #snapshot()} may be called from anywhere.
+     */
+    public static final class Player {
+        private final Game game;
+        private final SeqLock published = new SeqLock();
+
+        Player(long seed) {
+            game = Game.withTileSequence(seed);
+        }
+
+        /**
+         * Starts the game if it is not running, see {@link Game#start()}.
+         */
+        public void start() {
+            game.start();
+            publish();
+        }
+
+        /**
+         * Moves all tiles in a direction while the game is running, see {@link Game#move}.
+         *
+         * @param direction the direction to move in.
+         * @return if any tile is moved.
+         */
+        public boolean move(Direction direction) {
+            if (game.getState() != Game.State.running || !game.move(direction))
+                return false;
+            publish();
+            return true;
+        }
+
+        /**
+         * Applies a sequence of moves and publishes the board once at the end, see {@link Game#applyMoves}.
+         *
+         * @param moves the moves.
+         * @return the result after the moves.
+         */
+        public Game.Result applyMoves(Direction... moves) {
+            Game.Result result = game.applyMoves(moves);
+            publish();
+            return result;
+        }
+
+        public long getBoard() {
+            return game.getBoard();
+        }
+
+        public Game.State getState() {
+            return game.getState();
+        }
+
+        /**
+         * Reads the last published board, score and state without locking. Can be called from any thread.
+         *
+         * @return the snapshot.
+         */
+        public Snapshot snapshot() {
+            return published.read();
+        }
+
+        private void publish() {
+            published.write(game.getBoard(), game.getScore(), game.getState());
+        }
+    }
+
+    /**
+     * Board, score and state of a player at one point of the race.
+     */
+    public static final class Snapshot {
+        private final long board;
+        private final int score;
+        private final Game.State state;
+        private final int version;
+
+        Snapshot(long board, int score, Game.State state, int version) {
+            this.board = board;
+            this.score = score;
+            this.state = state;
+            this.version = version;
+        }
+
+        public long getBoard() {
+            return board;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public Game.State getState() {
+            return state;
+        }
+
+        /**
+         * @return the number of times the player published, which changes whenever the other values may have.
+         */
+        public int getVersion() {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.game2048.race;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import com.example.game2048.core.Game;
+
+/**
+ * Board, score and state of one player, written by one thread and read by any number of threads without locking.
+ * The writer makes the sequence number odd while it changes the fields and even again afterwards, readers retry until
+ * they saw the same even number before and after reading the fields. Writing never waits for readers.
+ */
+final class SeqLock {
+    private static final VarHandle SEQUENCE;
+    private static final VarHandle BOARD;
+    private static final VarHandle SCORE;
+    private static final VarHandle STATE;
+    private static final Game.State[] STATES = Game.State.values();
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            SEQUENCE = lookup.findVarHandle(SeqLock.class, "sequence", int.class);
+            BOARD = lookup.findVarHandle(SeqLock.class, "board", long.class);
+            SCORE = lookup.findVarHandle(SeqLock.class, "score", int.class);
+            STATE = lookup.findVarHandle(SeqLock.class, "state", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private int sequence;
+    // Accessed with opaque mode, so a long is never torn and reads are not hoisted out of the retry loop.
+    private long board;
+    private int score;
+    private int state;
+
+    /**
+     * Publishes new values. Only ever called by the same thread.
+     *
+     * @param board the packed board.
+     * @param score the score.
+     * @param state the state of the game.
+     */
+    void write(long board, int score, Game.State state) {
+        int s = (int) SEQUENCE.getOpaque(this);
+        SEQUENCE.setOpaque(this, s + 1);
+        // The odd sequence number is visible before any of the fields change.
+        VarHandle.storeStoreFence();
+        BOARD.setOpaque(this, board);
+        SCORE.setOpaque(this, score);
+        STATE.setOpaque(this, state.ordinal());
+        // The fields are visible before the even sequence number.
+        SEQUENCE.setRelease(this, s + 2);
+    }
+
+    /**
+     * Reads a consistent copy of the values, spinning while the writer is in the middle of a write.
+     *
+     * @return the values of the last completed write.
+     */
+    Race.Snapshot read() {
+        while (true) {
+            int before = (int) SEQUENCE.getAcquire(this);
+            if ((before & 1) == 0) {
+                long b = (long) BOARD.getOpaque(this);
+                int sc = (int) SCORE.getOpaque(this);
+                int st = (int) STATE.getOpaque(this);
+                // The fields are read before the sequence number is read again.
+                VarHandle.loadLoadFence();
+                if ((int) SEQUENCE.getOpaque(this) == before)
+                    return new Race.Snapshot(b, sc, STATES[st], before >>> 1);
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
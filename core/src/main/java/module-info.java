@@ -0,0 +1,8 @@
+module com.example.game2048.core {
+    requires static jdk.incubator.vector;
+
+    exports com.example.game2048.core;
+    exports com.example.game2048.ai;
+    exports com.example.game2048.leaderboard;
+    exports com.example.game2048.race;
+}
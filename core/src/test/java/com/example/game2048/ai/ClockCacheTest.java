@@ -0,0 +1,78 @@
+package com.example.game2048.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ClockCacheTest {
+    @Test
+    void returnsTheLastValuePut() {
+        ClockCache cache = new ClockCache(1024);
+        assertEquals(ClockCache.MISSING, cache.get(42));
+        cache.put(42, 1);
+        cache.put(42, 2);
+        assertEquals(2, cache.get(42));
+    }
+
+    @Test
+    void capacityIsAPowerOfTwo() {
+        int capacity = new ClockCache(100).capacity();
+        assertTrue(capacity >= 100);
+        assertEquals(1, Integer.bitCount(capacity));
+    }
+
+    @Test
+    void capacityIsNotRoundedUpPastAPowerOfTwo() {
+        assertEquals(ClockCache.WAYS, new ClockCache(1).capacity());
+        assertEquals(8, new ClockCache(8).capacity());
+        assertEquals(16, new ClockCache(9).capacity());
+        assertEquals(16, new ClockCache(16).capacity());
+        assertEquals(1 << 16, new ClockCache(1 << 16).capacity());
+    }
+
+    @Test
+    void neverHoldsMoreThanItsCapacity() {
+        ClockCache cache = new ClockCache(64);
+        for (long board = 1; board <= 10_000; board++) {
+            cache.put(board, (int) board);
+            assertEquals((int) board, cache.get(board));
+        }
+        int hits = 0;
+        for (long board = 1; board <= 10_000; board++) {
+            int value = cache.get(board);
+            if (value != ClockCache.MISSING) {
+                assertEquals((int) board, value);
+                hits++;
+            }
+        }
+        assertTrue(hits <= cache.capacity(), hits + " entries");
+        assertTrue(hits > 0);
+    }
+
+    @Test
+    void evictsTheFirstEntryNotUsedSinceTheHandPassed() {
+        ClockCache cache = new ClockCache(ClockCache.WAYS);
+        long[] boards = new long[ClockCache.WAYS + 4];
+        for (int i = 0, board = 1; i < boards.length; board++) {
+            if (cache.set(board) == 0)
+                boards[i++] = board;
+        }
+        for (int i = 0; i < ClockCache.WAYS; i++) {
+            cache.put(boards[i], i);
+        }
+        // All slots were just used: the hand clears them all and comes back to the first.
+        cache.put(boards[8], 8);
+        assertEquals(ClockCache.MISSING, cache.get(boards[0]));
+        // Slot 3 is used again, so the hand passes over it once.
+        assertEquals(3, cache.get(boards[3]));
+        cache.put(boards[9], 9);
+        cache.put(boards[10], 10);
+        cache.put(boards[11], 11);
+        assertEquals(ClockCache.MISSING, cache.get(boards[1]));
+        assertEquals(ClockCache.MISSING, cache.get(boards[2]));
+        assertEquals(3, cache.get(boards[3]));
+        assertEquals(ClockCache.MISSING, cache.get(boards[4]));
+        assertEquals(5, cache.get(boards[5]));
+    }
+}
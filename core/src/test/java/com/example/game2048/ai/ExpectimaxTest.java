@@ -0,0 +1,85 @@
+package com.example.game2048.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.game2048.core.Board;
+import com.example.game2048.core.Direction;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ExpectimaxTest {
+    // A board with half of the grids empty, too much to search 6 levels deep within the budget.
+    private static final long BOARD = 0x1000_0210_3021_4321L;
+    private static final long BUDGET_NANOS = 200_000_000L;
+
+    @Test
+    void addsTheMoveRewardForAfterstateValues() {
+        // Two 8s in the top row and a 2 below: left and right merge them for 16, up and down score nothing.
+        long board = 0x0000_0000_0100_0033L;
+        Evaluator afterstates = new Evaluator() {
+            @Override
+            public float evaluate(long b) {
+                return 0;
+            }
+
+            @Override
+            public boolean excludesMoveReward() {
+                return true;
+            }
+        };
+        Expectimax rewarded = new Expectimax(1, null, afterstates);
+        assertEquals(Direction.LEFT, rewarded.bestMove(board, 0));
+        assertEquals(Direction.LEFT, rewarded.bestMove(board, 1));
+        assertEquals(Direction.LEFT, rewarded.bestMoveWithin(board, BUDGET_NANOS));
+        assertEquals(16, Board.score(board, Direction.LEFT));
+        // Without the reward every move is worth the same and the first one that moves wins.
+        assertEquals(Direction.UP, new Expectimax(1, null, b -> 0).bestMove(board, 0));
+    }
+
+    @Test
+    void anExpiredBudgetStopsWithinOneCheckOfWork() {
+        CountingEvaluator leaves = new CountingEvaluator(0, 0);
+        Expectimax solver = new Expectimax(6, null, leaves);
+        assertNotNull(solver.bestMoveWithin(BOARD, 0));
+        // The boards after the moves are scored before the budget starts, at most one check of work after it.
+        assertTrue(leaves.calls <= 4 + Expectimax.WORK_PER_DEADLINE_CHECK, leaves.calls + " leaves");
+    }
+
+    @Test
+    void aBudgetRunningOutMidSearchStopsWithinOneCheckOfWork() {
+        // The leaf after the first few hundred outlasts the budget, so the deadline passes while it is scored.
+        CountingEvaluator leaves = new CountingEvaluator(500, TimeUnit.NANOSECONDS.toMillis(BUDGET_NANOS) + 10);
+        Expectimax solver = new Expectimax(6, null, leaves);
+        assertNotNull(solver.bestMoveWithin(BOARD, BUDGET_NANOS));
+        assertTrue(leaves.calls >= 500 && leaves.calls <= 500 + Expectimax.WORK_PER_DEADLINE_CHECK,
+                leaves.calls + " leaves");
+    }
+
+    /**
+     * Scores boards with the {@link Heuristic}, counting them, and sleeps while scoring one of them.
+     */
+    private static final class CountingEvaluator implements Evaluator {
+        private final int slowCall;
+        private final long sleepMillis;
+        int calls;
+
+        CountingEvaluator(int slowCall, long sleepMillis) {
+            this.slowCall = slowCall;
+            this.sleepMillis = sleepMillis;
+        }
+
+        @Override
+        public float evaluate(long board) {
+            if (++calls == slowCall) {
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return Heuristic.evaluate(board);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.game2048.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.game2048.core.Board;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IncrementalLeavesTest {
+    private static final int BOARDS = 2000;
+
+    @Test
+    void bestIsTheValueOfTheMoveNode() {
+        Expectimax full = new Expectimax(1, null, Heuristic::evaluate);
+        IncrementalLeaves leaves = new IncrementalLeaves();
+        Random random = new Random(0);
+        boolean negative = false;
+        for (int n = 0; n < BOARDS; n++) {
+            long board = randomBoard(random);
+            leaves.prepare(board);
+            for (int i = 0; i < Board.GRIDS; i++) {
+                if (((board >>> (4 * i)) & 0xF) != 0)
+                    continue;
+                for (int exponent = 1; exponent <= 2; exponent++) {
+                    float expected = full.moveNode(board | (long) exponent << (4 * i), 0, 1f);
+                    float actual = leaves.best(i, exponent);
+                    assertEquals(expected, actual, tolerance(expected), Long.toHexString(board));
+                    assertTrue(actual >= 0, Long.toHexString(board));
+                }
+            }
+            negative |= Heuristic.evaluate(board) < 0;
+        }
+        assertTrue(negative, "no board scored below 0");
+    }
+
+    @Test
+    void incrementalSearchMatchesTheFullSearch() {
+        Expectimax incremental = new Expectimax(1, null, null);
+        Expectimax full = new Expectimax(1, null, Heuristic::evaluate);
+        Random random = new Random(1);
+        for (int n = 0; n < BOARDS; n++) {
+            long board = randomBoard(random);
+            if (Board.emptyCount(board) == 0)
+                continue;
+            float expected = full.chanceNode(board, 1, 1f);
+            assertEquals(expected, incremental.chanceNode(board, 1, 1f), tolerance(expected),
+                    Long.toHexString(board));
+        }
+    }
+
+    // Boards with few to many tiles up to 2048, so some score below 0 and some cannot move after a new tile.
+    private static long randomBoard(Random random) {
+        int tiles = Board.GRIDS - 1 - random.nextInt(12);
+        long board = 0;
+        for (int i = 0; i < tiles; i++) {
+            board |= (long) (1 + random.nextInt(11)) << (4 * i);
+        }
+        // Shuffles the grids so the empty ones are anywhere.
+        for (int i = Board.GRIDS - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long a = (board >>> (4 * i)) & 0xF;
+            long b = (board >>> (4 * j)) & 0xF;
+            board &= ~(0xFL << (4 * i) | 0xFL << (4 * j));
+            board |= b << (4 * i) | a << (4 * j);
+        }
+        return board;
+    }
+
+    // The line scores are large and summed in a different order, so the float sums round differently.
+    private static float tolerance(float expected) {
+        return Math.max(1f, Math.abs(expected) * 1e-5f);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.game2048.ai;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NTupleNetworkTest {
+    // A board with every exponent once, so no two symmetries of a pattern select the same weight.
+    private static final long DISTINCT = 0xFEDC_BA98_7654_3210L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void savedWeightsLoadTheSame() throws IOException {
+        NTupleNetwork network = new NTupleNetwork(NTupleNetwork.SMALL);
+        Random random = new Random(0);
+        for (float[] table : network.tables) {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = random.nextFloat() - 0.5f;
+            }
+        }
+        Path path = dir.resolve("small.weights");
+        network.save(path);
+        NTupleNetwork loaded = NTupleNetwork.load(path);
+        for (int p = 0; p < network.tables.length; p++) {
+            assertArrayEquals(network.tables[p], loaded.tables[p]);
+        }
+        for (int i = 0; i < 1000; i++) {
+            long board = random.nextLong();
+            assertEquals(network.evaluate(board), loaded.evaluate(board));
+        }
+    }
+
+    @Test
+    void corruptHeadersAreRejected() throws IOException {
+        Path path = dir.resolve("row.weights");
+        new NTupleNetwork(new int[][] {{0, 1, 2, 3}}).save(path);
+        byte[] bytes = Files.readAllBytes(path);
+        // Magic, version, number of patterns, length of the first pattern and its first grid.
+        assertRejected(with(bytes, 0, 0));
+        assertRejected(with(bytes, 1, NTupleNetwork.VERSION + 1));
+        assertRejected(with(bytes, 2, 0));
+        assertRejected(with(bytes, 2, -1));
+        assertRejected(with(bytes, 2, 2));
+        assertRejected(with(bytes, 2, Integer.MAX_VALUE));
+        assertRejected(with(bytes, 3, 0));
+        assertRejected(with(bytes, 3, -4));
+        assertRejected(with(bytes, 3, NTupleNetwork.MAX_TUPLE_LENGTH + 1));
+        assertRejected(with(bytes, 3, 8));
+        assertRejected(with(bytes, 4, -1));
+        assertRejected(with(bytes, 4, 16));
+        assertRejected(Arrays.copyOf(bytes, bytes.length - 1));
+        assertRejected(Arrays.copyOf(bytes, 14));
+        assertRejected(Arrays.copyOf(bytes, bytes.length + 4));
+    }
+
+    private void assertRejected(byte[] bytes) throws IOException {
+        Path path = Files.write(dir.resolve("bad.weights"), bytes);
+        assertThrows(IOException.class, () -> NTupleNetwork.load(path));
+    }
+
+    private static byte[] with(byte[] bytes, int index, int value) {
+        byte[] changed = bytes.clone();
+        ByteBuffer.wrap(changed).order(ByteOrder.LITTLE_ENDIAN).putInt(4 * index, value);
+        return changed;
+    }
+
+    @Test
+    void updateMovesTheValueByTheDeltaOfEveryWeight() {
+        NTupleNetwork network = new NTupleNetwork(NTupleNetwork.SMALL);
+        network.update(DISTINCT, 0.25f);
+        assertEquals(0.25f * network.features(), network.evaluate(DISTINCT));
+        network.update(DISTINCT, -0.25f);
+        assertEquals(0, network.evaluate(DISTINCT));
+    }
+
+    @Test
+    void temporalDifferenceLearningRaisesTheScore() {
+        NTupleNetwork network = new NTupleNetwork(NTupleNetwork.SMALL);
+        TdTrainer trainer = new TdTrainer(network, 0.1f);
+        // An untrained network values every board at 0, so the moves are chosen by their reward alone.
+        long before = meanScore(trainer, 0);
+        Random random = new Random(1);
+        for (int i = 0; i < 2000; i++) {
+            trainer.playGame(random);
+        }
+        long after = meanScore(trainer, 0);
+        assertTrue(after > before * 1.5, before + " before and " + after + " after training");
+    }
+
+    private static long meanScore(TdTrainer trainer, long seed) {
+        // The trainer learns from these games too, but from too few of them to matter.
+        Random random = new Random(seed);
+        long sum = 0;
+        for (int i = 0; i < 100; i++) {
+            sum += trainer.playGame(random);
+        }
+        return sum / 100;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.game2048.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.SmallBoard;
+import com.example.game2048.core.Symmetry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TablebaseTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void solvesTheWhole2x2Game() throws IOException {
+        assertLookups(2, 100, 0);
+    }
+
+    @Test
+    void solvesThe3x3OpeningWithinAHorizon() throws IOException {
+        assertLookups(3, 3, 2);
+    }
+
+    @Test
+    void searchesThe4x4Opening() throws IOException {
+        assertLookups(4, 0, 1);
+    }
+
+    /**
+     * Generates a table and checks that every position and each of its symmetric forms gets the same value and a legal
+     * move leading to the same position, and that positions without a legal move are not stored.
+     */
+    private void assertLookups(int side, int moves, int depth) throws IOException {
+        TablebaseGenerator generator = new TablebaseGenerator(side, depth);
+        long[] positions = generator.reachable(moves);
+        Path path = dir.resolve(side + "x" + side + ".tb");
+        int written = generator.write(positions, path);
+        Tablebase table = Tablebase.open(path);
+        assertEquals(side, table.side());
+        assertEquals(written, table.size());
+
+        int stored = 0;
+        for (long board : positions) {
+            Direction best = table.bestMove(board);
+            if (!SmallBoard.canMove(board, side)) {
+                assertNull(best, Long.toHexString(board));
+                assertTrue(Float.isNaN(table.value(board)), Long.toHexString(board));
+                continue;
+            }
+            stored++;
+            assertNotNull(best, Long.toHexString(board));
+            long after = canonical(SmallBoard.move(board, side, best, null), side);
+            for (int t = 0; t < Symmetry.COUNT; t++) {
+                long symmetric = Symmetry.transform(board, side, t);
+                Direction d = table.bestMove(symmetric);
+                assertNotNull(d, Long.toHexString(symmetric));
+                long moved = SmallBoard.move(symmetric, side, d, null);
+                assertNotEquals(symmetric, moved, Long.toHexString(symmetric));
+                assertEquals(after, canonical(moved, side), Long.toHexString(symmetric));
+                assertEquals(table.value(board), table.value(symmetric), Long.toHexString(symmetric));
+            }
+        }
+        assertEquals(written, stored);
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path path = dir.resolve("2x2.tb");
+        TablebaseGenerator generator = new TablebaseGenerator(2, 0);
+        generator.write(generator.reachable(100), path);
+        byte[] bytes = Files.readAllBytes(path);
+
+        byte[] magic = bytes.clone();
+        magic[0] ^= 1;
+        assertRejected(magic);
+        byte[] version = bytes.clone();
+        version[7]++;
+        assertRejected(version);
+        assertRejected(Arrays.copyOf(bytes, bytes.length - 1));
+        assertRejected(Arrays.copyOf(bytes, Tablebase.HEADER_BYTES - 1));
+        assertRejected(new byte[0]);
+    }
+
+    private void assertRejected(byte[] bytes) throws IOException {
+        Path path = Files.write(dir.resolve("bad.tb"), bytes);
+        assertThrows(IOException.class, () -> Tablebase.open(path));
+    }
+
+    private static long canonical(long board, int side) {
+        return Symmetry.transform(board, side, Symmetry.canonicalTransform(board, side));
+    }
+}
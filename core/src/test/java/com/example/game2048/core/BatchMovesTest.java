@@ -0,0 +1,58 @@
+package com.example.game2048.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class BatchMovesTest {
+    // Not a multiple of any lane count, so the scalar tail after the vector loop runs too.
+    private static final int COUNT = 1003;
+
+    @Test
+    void usesTheVectorApiWhenItsModuleIsResolved() {
+        // The build resolves the module for the tests, see the surefire configuration of the core module.
+        assertTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+        assertTrue(BatchMoves.isVectorized());
+    }
+
+    @Test
+    void vectorMovesMatchTheScalarMoves() {
+        BatchMoves.Mover vector = new VectorMover();
+        Random random = new Random(0);
+        long[] boards = new long[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            boards[i] = randomBoard(random);
+        }
+        for (int count : new int[] {0, 1, 2, 3, 5, 8, 17, COUNT}) {
+            for (Direction d : Direction.values()) {
+                long[] expected = new long[count];
+                int[] expectedScores = new int[count];
+                BatchMoves.SCALAR.move(d, boards, expected, expectedScores, count);
+
+                long[] results = new long[count];
+                int[] scores = new int[count];
+                vector.move(d, boards, results, scores, count);
+                assertArrayEquals(expected, results, d + " " + count);
+                assertArrayEquals(expectedScores, scores, d + " " + count);
+
+                long[] inPlace = Arrays.copyOf(boards, count);
+                BatchMoves.move(d, inPlace, inPlace, scores, count);
+                assertArrayEquals(expected, inPlace, d + " " + count);
+                assertArrayEquals(expectedScores, scores, d + " " + count);
+            }
+        }
+    }
+
+    // Boards with many equal neighbours, so most moves merge, and with the largest exponents, which never merge.
+    private static long randomBoard(Random random) {
+        long board = 0;
+        for (int i = 0; i < Board.GRIDS; i++) {
+            int exponent = random.nextInt(3) == 0 ? 0 : random.nextInt(4) == 0 ? 1 + random.nextInt(15) : 1;
+            board |= (long) exponent << (4 * i);
+        }
+        return board;
+    }
+}
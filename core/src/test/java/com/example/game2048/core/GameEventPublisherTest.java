@@ -0,0 +1,185 @@
+package com.example.game2048.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class GameEventPublisherTest {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutDown() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Collects events, requesting a fixed number at a time.
+     */
+    private static final class Collector implements Flow.Subscriber<GameEvent> {
+        final List<GameEvent> events = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch completed = new CountDownLatch(1);
+        private final long batch;
+        private Flow.Subscription subscription;
+        private long left;
+
+        Collector(long batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            left = batch;
+            if (batch > 0)
+                subscription.request(batch);
+        }
+
+        @Override
+        public void onNext(GameEvent event) {
+            events.add(event);
+            if (--left == 0) {
+                left = batch;
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            throw new AssertionError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+
+    private static Game play(long seed, GameEventPublisher publisher) {
+        Random random = new Random(seed);
+        Game game = new Game(seed);
+        game.setPublisher(publisher);
+        game.start();
+        while (game.getState() == Game.State.running) {
+            game.move(Direction.of(random.nextInt(4)));
+        }
+        return game;
+    }
+
+    @Test
+    void eventsReplayTheGames() throws InterruptedException {
+        GameEventPublisher publisher = new GameEventPublisher(16, GameEventPublisher.Policy.BLOCK, executor);
+        Collector collector = new Collector(3);
+        publisher.subscribe(collector);
+        List<Game> games = new ArrayList<>();
+        for (int seed = 0; seed < 50; seed++) {
+            games.add(play(seed, publisher));
+        }
+        publisher.close();
+        assertTrue(collector.completed.await(10, TimeUnit.SECONDS));
+        assertEquals(0, publisher.getDropped());
+
+        int game = -1;
+        long board = 0;
+        int score = 0;
+        long moved = 0;
+        int merged = 0;
+        for (GameEvent event : collector.events) {
+            switch (event.getType()) {
+                case STATE:
+                    if (event.getState() == Game.State.running) {
+                        if (game >= 0)
+                            assertEquals(games.get(game).getBoard(), board);
+                        game++;
+                        board = 0;
+                        score = 0;
+                    }
+                    assertEquals(board, event.getBoard());
+                    break;
+                case MOVE:
+                    assertEquals(Board.move(board, event.getDirection()), event.getBoard());
+                    assertEquals(Board.score(board, event.getDirection()), event.getScore() - score);
+                    moved = event.getBoard();
+                    merged = 0;
+                    break;
+                case MERGE:
+                    assertEquals(moved, event.getBoard());
+                    assertEquals(event.getExponent(), Board.get(moved, event.getX(), event.getY()));
+                    merged += 1 << event.getExponent();
+                    break;
+                case SPAWN:
+                    assertEquals(0, Board.get(board, event.getX(), event.getY()));
+                    assertEquals(Board.with(board, event.getX(), event.getY(), event.getExponent()), event.getBoard());
+                    if (moved != 0)
+                        assertEquals(event.getScore() - score, merged);
+                    moved = 0;
+                    break;
+            }
+            board = event.getBoard();
+            if (event.getType() != GameEvent.Type.MOVE && event.getType() != GameEvent.Type.MERGE)
+                score = event.getScore();
+        }
+        assertEquals(games.size() - 1, game);
+        assertEquals(games.get(game).getBoard(), board);
+        assertEquals(games.get(game).getScore(), score);
+    }
+
+    @Test
+    void dropNeverWaitsForAStalledSubscriber() {
+        GameEventPublisher publisher = new GameEventPublisher(16, GameEventPublisher.Policy.DROP, executor);
+        Collector stalled = new Collector(0);
+        publisher.subscribe(stalled);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int seed = 0; seed < 20; seed++) {
+                play(seed, publisher);
+            }
+        });
+        assertTrue(publisher.getDropped() > 0);
+        assertTrue(stalled.events.isEmpty());
+    }
+
+    @Test
+    void blockDeliversEveryEvent() throws InterruptedException {
+        GameEventPublisher unbounded = new GameEventPublisher(1 << 16, GameEventPublisher.Policy.DROP, executor);
+        Collector all = new Collector(Long.MAX_VALUE);
+        unbounded.subscribe(all);
+        play(7, unbounded);
+        unbounded.close();
+        assertTrue(all.completed.await(10, TimeUnit.SECONDS));
+
+        GameEventPublisher blocking = new GameEventPublisher(2, GameEventPublisher.Policy.BLOCK, executor);
+        Collector slow = new Collector(1);
+        blocking.subscribe(slow);
+        play(7, blocking);
+        blocking.close();
+        assertTrue(slow.completed.await(10, TimeUnit.SECONDS));
+        assertEquals(all.events.size(), slow.events.size());
+        assertEquals(0, blocking.getDropped());
+    }
+
+    @Test
+    void cancelledSubscribersAreRemoved() {
+        GameEventPublisher publisher = new GameEventPublisher(16, GameEventPublisher.Policy.DROP, executor);
+        assertFalse(publisher.hasSubscribers());
+        Collector collector = new Collector(Long.MAX_VALUE);
+        publisher.subscribe(collector);
+        assertTrue(publisher.hasSubscribers());
+        collector.subscription.cancel();
+        assertFalse(publisher.hasSubscribers());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.game2048.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class GameTest {
+    @Test
+    void appliedMovesPlayLikeSingleMoves() {
+        Direction[] moves = randomMoves(1, 40);
+        Game single = started(2);
+        int unchanged = 0;
+        for (Direction d : moves) {
+            if (!single.move(d))
+                unchanged++;
+        }
+        assertTrue(unchanged > 0, "every move changed the board");
+        assertEquals(Game.State.running, single.getState());
+
+        Game.Result result = started(2).applyMoves(moves);
+        assertEquals(single.getBoard(), result.getBoard());
+        assertEquals(single.getScore(), result.getScore());
+        assertEquals(single.getState(), result.getState());
+        assertEquals(moves.length, result.getEnd());
+    }
+
+    @Test
+    void appliesOnlyTheRange() {
+        Direction[] moves = randomMoves(3, 20);
+        Game single = started(4);
+        for (int i = 5; i < 12; i++) {
+            single.move(moves[i]);
+        }
+        Game game = started(4);
+        Game.Result result = game.applyMoves(moves, 5, 12);
+        assertEquals(single.getBoard(), result.getBoard());
+        assertEquals(12, result.getEnd());
+        assertEquals(5, game.applyMoves(moves, 5, 5).getEnd());
+        assertEquals(single.getBoard(), game.getBoard());
+    }
+
+    @Test
+    void stopsWhenTheGameIsOver() {
+        Direction[] moves = randomMoves(5, 5000);
+        Game game = started(6);
+        Game.Result result = game.applyMoves(moves);
+        assertEquals(Game.State.over, result.getState());
+        assertTrue(result.getEnd() < moves.length);
+        // The move at the end is the one that ended the game.
+        Game replayed = started(6);
+        assertEquals(Game.State.running, replayed.applyMoves(moves, 0, result.getEnd() - 1).getState());
+        assertEquals(result.getBoard(), replayed.applyMoves(moves, result.getEnd() - 1, moves.length).getBoard());
+        // A game that is not running applies nothing.
+        assertEquals(3, game.applyMoves(moves, 3, moves.length).getEnd());
+        assertEquals(result.getBoard(), game.getBoard());
+    }
+
+    @Test
+    void stopsWhenTheGameIsWon() {
+        // Plays games keeping the tiles in the bottom left corner until one scores exactly the target.
+        for (long seed = 0; seed < 1000; seed++) {
+            Game game = started(seed);
+            Direction[] moves = new Direction[10_000];
+            int n = 0;
+            while (game.getState() == Game.State.running) {
+                for (Direction d : new Direction[] {Direction.DOWN, Direction.LEFT, Direction.RIGHT, Direction.UP}) {
+                    if (game.move(d)) {
+                        moves[n++] = d;
+                        break;
+                    }
+                }
+            }
+            if (game.getState() != Game.State.won)
+                continue;
+            Arrays.fill(moves, n, moves.length, Direction.DOWN);
+            Game.Result result = started(seed).applyMoves(moves);
+            assertEquals(Game.State.won, result.getState());
+            assertEquals(Game.TARGET, result.getScore());
+            assertEquals(n, result.getEnd());
+            return;
+        }
+        throw new AssertionError("no game was won");
+    }
+
+    @Test
+    void rangeIsCheckedBeforeAnyMove() {
+        Direction[] moves = randomMoves(7, 10);
+        Game game = started(8);
+        long board = game.getBoard();
+        assertThrows(IndexOutOfBoundsException.class, () -> game.applyMoves(moves, 0, 11));
+        assertThrows(IndexOutOfBoundsException.class, () -> game.applyMoves(moves, -1, 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> game.applyMoves(moves, 6, 5));
+        assertEquals(board, game.getBoard());
+        assertEquals(0, game.getScore());
+    }
+
+    private static Game started(long seed) {
+        Game game = new Game(seed);
+        game.start();
+        return game;
+    }
+
+    private static Direction[] randomMoves(long seed, int n) {
+        Random random = new Random(seed);
+        Direction[] moves = new Direction[n];
+        for (int i = 0; i < n; i++) {
+            moves[i] = Direction.of(random.nextInt(4));
+        }
+        return moves;
+    }
+}
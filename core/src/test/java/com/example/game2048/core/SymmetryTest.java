@@ -0,0 +1,53 @@
+package com.example.game2048.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SymmetryTest {
+    private static final int BOARDS = 10_000;
+
+    @Test
+    void symmetricBoardsShareTheCanonicalBoard() {
+        Random random = new Random(1);
+        for (int i = 0; i < BOARDS; i++) {
+            long board = random.nextLong();
+            long canonical = Symmetry.canonical(board);
+            assertEquals(canonical, Symmetry.transform(board, Symmetry.canonicalTransform(board)));
+            for (int t = 0; t < Symmetry.COUNT; t++) {
+                assertEquals(canonical, Symmetry.canonical(Symmetry.transform(board, t)), Board.toString(board));
+            }
+        }
+    }
+
+    @Test
+    void movesMapToTheTransformedBoard() {
+        Random random = new Random(2);
+        for (int i = 0; i < BOARDS; i++) {
+            long board = random.nextLong() & random.nextLong();
+            for (int t = 0; t < Symmetry.COUNT; t++) {
+                for (Direction d : Direction.values()) {
+                    Direction transformed = Symmetry.toTransformed(d, t);
+                    assertEquals(Symmetry.transform(Board.move(board, d), t),
+                            Board.move(Symmetry.transform(board, t), transformed));
+                    assertEquals(d, Symmetry.toOriginal(transformed, t));
+                }
+            }
+        }
+    }
+
+    @Test
+    void smallBoardsTransformLikePackedBoards() {
+        Random random = new Random(3);
+        for (int i = 0; i < BOARDS; i++) {
+            long board = random.nextLong() & 0xFFFFFFFFFL;
+            for (int t = 0; t < Symmetry.COUNT; t++) {
+                long transformed = Symmetry.transform(board, 3, t);
+                assertEquals(Symmetry.transform(transformed, 3, Symmetry.canonicalTransform(transformed, 3)),
+                        Symmetry.transform(board, 3, Symmetry.canonicalTransform(board, 3)));
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.game2048.leaderboard;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LeaderboardTest {
+    @TempDir
+    Path directory;
+
+    private static int[] randomScores(long seed, int n) {
+        Random random = new Random(seed);
+        return IntStream.range(0, n).map(i -> 4 * random.nextInt(20_000)).toArray();
+    }
+
+    private static int[] best(int[] scores, int k) {
+        int[] sorted = scores.clone();
+        Arrays.sort(sorted);
+        int n = Math.min(k, sorted.length);
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = sorted[sorted.length - 1 - i];
+        }
+        return result;
+    }
+
+    @Test
+    void ranksAndTopMatchSortedScores() {
+        int[] scores = randomScores(1, 5000);
+        Leaderboard leaderboard = Leaderboard.inMemory();
+        for (int score : scores) {
+            leaderboard.record(score);
+        }
+        assertEquals(scores.length, leaderboard.size());
+        Random random = new Random(2);
+        for (int i = 0; i < 1000; i++) {
+            int score = 4 * random.nextInt(21_000);
+            int better = (int) Arrays.stream(scores).filter(s -> s > score).count();
+            assertEquals(better + 1, leaderboard.rank(score));
+        }
+        assertArrayEquals(best(scores, 100), leaderboard.top(100));
+        assertArrayEquals(best(scores, scores.length + 1), leaderboard.top(scores.length + 1));
+    }
+
+    @Test
+    void scoresOutsideTheBucketsAreClamped() {
+        Leaderboard leaderboard = Leaderboard.inMemory();
+        leaderboard.record(-8);
+        leaderboard.record(Leaderboard.MAX_SCORE + 1000);
+        assertArrayEquals(new int[]{Leaderboard.MAX_SCORE, 0}, leaderboard.top(2));
+    }
+
+    @Test
+    void reopenedFileHasTheSameScores() throws IOException {
+        Path file = directory.resolve("scores");
+        // More than one batch, so some scores are written on record and the rest on close.
+        int[] scores = randomScores(3, Leaderboard.BATCH * 2 + 17);
+        try (Leaderboard leaderboard = Leaderboard.open(file)) {
+            for (int score : scores) {
+                leaderboard.record(score);
+            }
+        }
+        assertEquals(4L * scores.length, Files.size(file));
+        try (Leaderboard leaderboard = Leaderboard.open(file)) {
+            assertEquals(scores.length, leaderboard.size());
+            assertArrayEquals(best(scores, 50), leaderboard.top(50));
+        }
+    }
+
+    @Test
+    void tornLastRecordIsCutOff() throws IOException {
+        Path file = directory.resolve("scores");
+        try (Leaderboard leaderboard = Leaderboard.open(file)) {
+            leaderboard.record(100);
+            leaderboard.record(200);
+        }
+        Files.write(file, new byte[]{0, 0}, StandardOpenOption.APPEND);
+        try (Leaderboard leaderboard = Leaderboard.open(file)) {
+            assertEquals(2, leaderboard.size());
+            leaderboard.record(300);
+        }
+        assertEquals(12, Files.size(file));
+        try (Leaderboard leaderboard = Leaderboard.open(file)) {
+            assertArrayEquals(new int[]{300, 200, 100}, leaderboard.top(3));
+        }
+    }
+
+    @Test
+    void failedBatchIsWrittenWithTheNextOne() throws IOException {
+        Path file = directory.resolve("scores");
+        int[] scores = randomScores(4, Leaderboard.BATCH + 1);
+        FailingChannel channel = new FailingChannel(FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+        try (Leaderboard leaderboard = new Leaderboard(channel)) {
+            channel.failures = 1;
+            for (int i = 0; i < Leaderboard.BATCH - 1; i++) {
+                leaderboard.record(scores[i]);
+            }
+            assertThrows(UncheckedIOException.class, () -> leaderboard.record(scores[Leaderboard.BATCH - 1]));
+            assertEquals(Leaderboard.BATCH, leaderboard.size());
+            leaderboard.record(scores[Leaderboard.BATCH]);
+        }
+        assertEquals(4L * scores.length, Files.size(file));
+        try (Leaderboard leaderboard = Leaderboard.open(file)) {
+            assertArrayEquals(best(scores, scores.length), leaderboard.top(scores.length));
+        }
+    }
+
+    @Test
+    void clientsSharingAFileKeepEachOthersScores() throws IOException {
+        Path file = directory.resolve("scores");
+        int[] scores = randomScores(5, Leaderboard.BATCH * 4 + 3);
+        try (Leaderboard first = Leaderboard.open(file); Leaderboard second = Leaderboard.open(file)) {
+            // Whole batches alternate between the clients, and each writes the rest on close.
+            for (int i = 0; i < scores.length; i++) {
+                (i / Leaderboard.BATCH % 2 == 0 ? first : second).record(scores[i]);
+            }
+        }
+        assertEquals(4L * scores.length, Files.size(file));
+        try (Leaderboard leaderboard = Leaderboard.open(file)) {
+            assertArrayEquals(best(scores, scores.length), leaderboard.top(scores.length));
+        }
+    }
+
+    @Test
+    void negativeTopIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Leaderboard.inMemory().top(-1));
+    }
+
+    /**
+     * A file whose next writes put half of the bytes on disk and then fail.
+     */
+    private static final class FailingChannel extends FileChannel {
+        private final FileChannel file;
+        int failures;
+
+        FailingChannel(FileChannel file) {
+            this.file = file;
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            if (failures == 0)
+                return file.write(src, position);
+            failures--;
+            ByteBuffer half = src.duplicate();
+            half.limit(half.position() + half.remaining() / 2);
+            file.write(half, position);
+            throw new IOException("Disk full");
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return file.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return file.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return file.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return file.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return file.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            file.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return file.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            file.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            file.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return file.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return file.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return file.read(dst, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return file.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return file.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return file.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.game2048.race;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import com.example.game2048.core.Board;
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.Game;
+import org.junit.jupiter.api.Test;
+
+class RaceTest {
+    /**
+     * Value and rank among the empty grids of the tile added by the last move, and the number of empty grids.
+     */
+    private static int[] spawn(long before, Direction direction, long after) {
+        long moved = Board.move(before, direction);
+        long tile = moved ^ after;
+        int i = Long.numberOfTrailingZeros(tile) / 4;
+        int rank = 0;
+        for (int j = 0; j < i; j++) {
+            if (((moved >>> (4 * j)) & 0xF) == 0)
+                rank++;
+        }
+        return new int[]{(int) (tile >>> (4 * i)), rank, Board.emptyCount(moved)};
+    }
+
+    @Test
+    void playersGetTheSameTilesWhateverTheyPlay() {
+        for (long seed = 0; seed < 100; seed++) {
+            Race race = new Race(2, seed);
+            Race.Player first = race.player(0);
+            Race.Player second = race.player(1);
+            first.start();
+            second.start();
+            Random moves = new Random(seed);
+            int compared = 0;
+            while (first.getState() == Game.State.running && second.getState() == Game.State.running) {
+                long a = first.getBoard();
+                long b = second.getBoard();
+                Direction da;
+                Direction db;
+                do {
+                    da = Direction.of(moves.nextInt(4));
+                } while (!first.move(da));
+                do {
+                    db = Direction.of(moves.nextInt(4));
+                } while (!second.move(db));
+                int[] spawnA = spawn(a, da, first.getBoard());
+                int[] spawnB = spawn(b, db, second.getBoard());
+                assertEquals(spawnA[0], spawnB[0], "seed " + seed);
+                // The same draw picks the same rank among as many empty grids, and not a lower one among more.
+                if (spawnA[2] == spawnB[2]) {
+                    assertEquals(spawnA[1], spawnB[1], "seed " + seed);
+                    compared++;
+                } else if (spawnA[2] > spawnB[2]) {
+                    assertTrue(spawnA[1] >= spawnB[1], "seed " + seed);
+                } else {
+                    assertTrue(spawnA[1] <= spawnB[1], "seed " + seed);
+                }
+            }
+            assertTrue(compared > 0);
+        }
+    }
+
+    @Test
+    void sameMovesLeadToTheSameBoards() {
+        Race race = new Race(3, 42);
+        Random moves = new Random(1);
+        for (int i = 0; i < race.size(); i++) {
+            race.player(i).start();
+        }
+        while (race.player(0).getState() == Game.State.running) {
+            Direction d = Direction.of(moves.nextInt(4));
+            for (int i = 0; i < race.size(); i++) {
+                race.player(i).move(d);
+            }
+            Race.Snapshot[] snapshots = race.snapshots();
+            for (Race.Snapshot snapshot : snapshots) {
+                assertEquals(snapshots[0].getBoard(), snapshot.getBoard());
+                assertEquals(snapshots[0].getScore(), snapshot.getScore());
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.game2048.race;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.example.game2048.core.Game;
+import org.junit.jupiter.api.Test;
+
+class SeqLockTest {
+    private static final Game.State[] STATES = Game.State.values();
+
+    @Test
+    void readersNeverSeeHalfAWrite() throws InterruptedException {
+        SeqLock lock = new SeqLock();
+        lock.write(0, 0, STATES[0]);
+        AtomicBoolean running = new AtomicBoolean(true);
+        // Every write stores the same counter in all fields, so a mix of two writes is detected.
+        Thread writer = new Thread(() -> {
+            for (int i = 1; running.get(); i++) {
+                lock.write((long) i << 32 | i, i, STATES[i & 3]);
+            }
+        });
+        writer.start();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+        int lastVersion = 0;
+        int reads = 0;
+        try {
+            while (System.nanoTime() < deadline) {
+                Race.Snapshot snapshot = lock.read();
+                int i = snapshot.getScore();
+                assertEquals((long) i << 32 | i, snapshot.getBoard());
+                assertEquals(STATES[i & 3], snapshot.getState());
+                assertEquals(i + 1, snapshot.getVersion());
+                assertTrue(snapshot.getVersion() >= lastVersion);
+                lastVersion = snapshot.getVersion();
+                reads++;
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+        assertTrue(reads > 0);
+    }
+}
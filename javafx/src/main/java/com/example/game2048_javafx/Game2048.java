@@ -0,0 +1,553 @@
+package com.example.game2048_javafx;
+
+import com.example.game2048.ai.AutoPlayer;
+import com.example.game2048.ai.Hints;
+import com.example.game2048.core.Board;
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.Game;
+import com.example.game2048.core.Game.State;
+import com.example.game2048.leaderboard.Leaderboard;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.event.EventHandler;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.stage.Stage;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Constructs game 2048 (five in a row). JavaFX version.
+ * See gameplay at https://en.wikipedia.org/wiki/2048_(video_game)
+ *
+ * @author Dian Yang
+ * @version 1.0
+ */
+public class Game2048 extends Application {
+    private static final int FRAME_RATE = 60;
+    // Moves of the scripted game of the training run, one per frame, before the auto player takes over for a second.
+    private static final int TRAINING_MOVES = 200;
+    /**
+     * System property that, set to true, prints the time to the first frame on every start, as the training run does.
+     * Set by the {@code --report-startup} argument, which also reaches the game through the launcher of the image.
+     */
+    public static final String STARTUP_PROPERTY = "game2048.reportStartup";
+    private final Game game = new Game();
+    private final Color emptyColor = Color.BURLYWOOD;
+    private final Color tileColor = Color.BISQUE;
+    private final Color textColor = Color.DARKORANGE;
+    private final Color hintColor = Color.ORANGERED;
+    private Label scoreLabel;
+    private Rectangle grid;
+    private Pane pane;
+    // Nodes added by the last call of draw, removed before drawing again.
+    private final List<Node> boardNodes = new ArrayList<>();
+    // Guards the game state, which is changed by the auto player thread as well as the application thread.
+    private final Object lock = new Object();
+    private final AnimationTimer frameTimer;
+    // The solver tables and the scores file take a while to set up, so they are created when first needed, after the
+    // first frame: the player on the first A or speed key, the hints on the first H and the leaderboard when a game
+    // ends. Guarded by the lock.
+    private AutoPlayer autoPlayer;
+    private Leaderboard leaderboard;
+    // Sets up the hints and searches them off the application thread, which goes on drawing and taking keys meanwhile.
+    private final ExecutorService hintSearch = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "hints");
+        t.setDaemon(true);
+        return t;
+    });
+    // Only used by the hint thread.
+    private Hints hints;
+    // If a hint is being searched, guarded by the lock.
+    private boolean hintSearching;
+    // Rank of the score of the last finished game.
+    private int rank;
+    // The last hint and the board it was given for, it is only shown while the board is unchanged.
+    private Direction hint;
+    private long hintBoard;
+
+    /**
+     * Constructor. Instantiates class variables, creates a grid for the game.
+     * Starts the game when clicking mouse.
+     */
+    public Game2048() {
+        pane = new Pane();
+        grid = new Rectangle(150, 50, 501, 501);
+        grid.setArcHeight(15);
+        grid.setArcWidth(15);
+        grid.setFill(Color.SADDLEBROWN);
+        pane.getChildren().add(grid);
+        initialize();
+        grid.setOnMouseClicked(new EventHandler<MouseEvent>() {
+            @Override
+            public void handle(MouseEvent mouseEvent) {
+                synchronized (lock) {
+                    startGame();
+                    draw();
+                }
+            }
+        });
+
+        // While auto playing the view is redrawn at a capped frame rate instead of after every move.
+        frameTimer = new AnimationTimer() {
+            private long lastFrame;
+
+            @Override
+            public void handle(long now) {
+                if (now - lastFrame < 1_000_000_000L / FRAME_RATE)
+                    return;
+                lastFrame = now;
+                synchronized (lock) {
+                    draw();
+                    if (!isAutoPlaying())
+                        stop();
+                }
+            }
+        };
+    }
+
+    /**
+     * @return the auto player, created on first use.
+     */
+    AutoPlayer autoPlayer() {
+        if (autoPlayer != null)
+            return autoPlayer;
+        autoPlayer = new AutoPlayer(new AutoPlayer.Host() {
+            @Override
+            public boolean isRunning() {
+                synchronized (lock) {
+                    return game.getState() == State.running;
+                }
+            }
+
+            @Override
+            public long board() {
+                synchronized (lock) {
+                    return game.getBoard();
+                }
+            }
+
+            @Override
+            public void play(long board, Direction direction) {
+                synchronized (lock) {
+                    if (game.getState() == State.running && game.getBoard() == board)
+                        move(direction);
+                }
+            }
+        });
+        return autoPlayer;
+    }
+
+    /**
+     * @return if the auto player exists and is playing.
+     */
+    boolean isAutoPlaying() {
+        return autoPlayer != null && autoPlayer.isPlaying();
+    }
+
+    /**
+     * Asks for the recommended move on the current board. It is searched on the hint thread and highlighted once found,
+     * until the next move.
+     */
+    void showHint() {
+        if (game.getState() != State.running || hintSearching)
+            return;
+        hintSearching = true;
+        long board = game.getBoard();
+        hintSearch.execute(() -> {
+            Direction d = null;
+            try {
+                if (hints == null)
+                    hints = new Hints();
+                d = hints.hint(board);
+            } finally {
+                Direction found = d;
+                Platform.runLater(() -> {
+                    synchronized (lock) {
+                        hintFound(board, found);
+                        draw();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Shows a hint found on the hint thread, if the board is still the one it was searched for.
+     *
+     * @param board the packed board the hint was searched for.
+     * @param direction the recommended direction, null if none was found.
+     */
+    void hintFound(long board, Direction direction) {
+        hintSearching = false;
+        hint = direction;
+        hintBoard = board;
+    }
+
+    /**
+     * Starts or stops the auto player. Starts a new game first if no game is running.
+     */
+    void toggleAutoPlay() {
+        if (isAutoPlaying()) {
+            autoPlayer.stop();
+            return;
+        }
+        startGame();
+        autoPlayer().start();
+        frameTimer.start();
+    }
+
+    /**
+     * Plays a scripted game and exits, the training run for the class data sharing archive of the launcher. The script
+     * goes through the same methods as the keys, so the archive holds the classes a real session loads.
+     */
+    void train() {
+        new AnimationTimer() {
+            private int step;
+
+            @Override
+            public void handle(long now) {
+                synchronized (lock) {
+                    if (step == 0) {
+                        startGame();
+                        showHint();
+                    } else if (step <= TRAINING_MOVES) {
+                        if (game.getState() == State.running)
+                            move(Direction.of(step % 4));
+                    } else if (step == TRAINING_MOVES + 1) {
+                        toggleAutoPlay();
+                    } else if (step == TRAINING_MOVES + 1 + FRAME_RATE) {
+                        System.exit(0);
+                    }
+                    draw();
+                }
+                step++;
+            }
+        }.start();
+    }
+
+    /**
+     * Prints the time from the start of the process to the first frame, which the class data sharing archive of the
+     * launcher brings down.
+     */
+    static void reportStartup() {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        System.err.println("First frame " + uptime + " ms after start");
+    }
+
+    /**
+     * Set initial display of the game.
+     */
+    void initialize() {
+        Label title = new Label("2048");
+        title.setFont(Font.font("SansSerif", FontWeight.BOLD, 120));
+        title.setTranslateX(280);
+        title.setTranslateY(150);
+        Label instr1 = new Label("click to start");
+        instr1.setFont(Font.font("SansSerif", FontWeight.BOLD, 25));
+        instr1.setTranslateX(330);
+        instr1.setTranslateY(400);
+        Label instr2 = new Label("use arrow keys to move");
+        instr2.setFont(Font.font("SansSerif", FontWeight.BOLD, 25));
+        instr2.setTranslateX(280);
+        instr2.setTranslateY(450);
+        Label instr3 = new Label("press A to auto play, H for a hint");
+        instr3.setFont(Font.font("SansSerif", FontWeight.BOLD, 25));
+        instr3.setTranslateX(210);
+        instr3.setTranslateY(500);
+        pane.getChildren().addAll(title, instr1, instr2, instr3);
+    }
+
+    /**
+     * Method for starting the game. Sets variables to initial values, adds two tiles to grid.
+     */
+    void startGame() {
+        if (game.getState() == State.running)
+            return;
+        grid = new Rectangle(150, 50, 501, 501);
+        grid.setArcHeight(15);
+        grid.setArcWidth(15);
+        grid.setFill(Color.SADDLEBROWN);
+        pane.getChildren().add(grid);
+        game.start();
+    }
+
+    /**
+     * Draws tiles and empty grids as well as other nodes.
+     * Being called every time an arrow key is pressed.
+     */
+    void draw() {
+        pane.getChildren().removeAll(boardNodes);
+        boardNodes.clear();
+        if (game.getState() == State.start)
+            return;
+        long board = game.getBoard();
+        // updates empty grids and tiles
+        for (int i = 0; i < Board.SIDE; i++) {
+            for (int j = 0; j < Board.SIDE; j++) {
+                if (Board.get(board, i, j) == 0) {
+                    Rectangle emptyTile = new Rectangle(170 + j * 120, 70 + i * 120, 100, 100);
+                    emptyTile.setArcWidth(15);
+                    emptyTile.setArcHeight(15);
+                    emptyTile.setFill(emptyColor);
+                    boardNodes.add(emptyTile);
+                } else {
+                    drawTile(i, j, Board.value(board, i, j));
+                }
+            }
+        }
+        if (hint != null && hintBoard == board)
+            drawHint();
+        // updates score of the game
+        pane.getChildren().remove(scoreLabel);
+        scoreLabel = new Label("SCORE: " + game.getScore());
+        scoreLabel.setTranslateX(680);
+        scoreLabel.setTranslateY(130);
+        scoreLabel.setTextFill(textColor);
+        scoreLabel.setFont(Font.font("SansSerif", FontWeight.BOLD, 30));
+        pane.getChildren().add(scoreLabel);
+        if (isAutoPlaying()) {
+            Label autoLabel = new Label("AUTO: " + autoPlayer.getSpeedLabel() + "\n+/- to change speed");
+            autoLabel.setTranslateX(680);
+            autoLabel.setTranslateY(180);
+            autoLabel.setTextFill(textColor);
+            autoLabel.setFont(Font.font("SansSerif", FontWeight.BOLD, 16));
+            boardNodes.add(autoLabel);
+        }
+        // displays game result
+        if (game.getState() != State.running) {
+            String res = game.getState() == State.won ? "Target Achieved!" : "Game Over!";
+            Label resLabel = new Label(res);
+            resLabel.setTranslateX(280);
+            resLabel.setTranslateY(150);
+            resLabel.setTextFill(Color.BLACK);
+            resLabel.setFont(Font.font("SansSerif", FontWeight.BOLD, 80));
+            boardNodes.add(resLabel);
+            if (leaderboard != null) {
+                Label rankLabel = new Label("Rank: " + rank + " of " + leaderboard.size());
+                rankLabel.setTranslateX(280);
+                rankLabel.setTranslateY(260);
+                rankLabel.setTextFill(Color.BLACK);
+                rankLabel.setFont(Font.font("SansSerif", FontWeight.BOLD, 30));
+                boardNodes.add(rankLabel);
+            }
+        }
+        pane.getChildren().addAll(boardNodes);
+    }
+
+    /**
+     * Draws a tile in the table.
+     *
+     * @param x row of the tile
+     * @param y column of the tile
+     * @param val value of the tile
+     */
+    void drawTile(int x, int y, int val) {
+        Rectangle tile = new Rectangle(170 + y * 120, 70 + x * 120, 100, 100);
+        tile.setArcWidth(15);
+        tile.setArcHeight(15);
+        tile.setFill(tileColor);
+        Label num = new Label(String.valueOf(val));
+        num.setTranslateX(220 - 8 * Math.log(val) + y * 120);
+        num.setTranslateY(100 + x * 120);
+        num.setTextFill(textColor);
+        num.setFont(Font.font("SansSerif", FontWeight.BOLD, 50));
+        boardNodes.add(tile);
+        boardNodes.add(num);
+    }
+
+    /**
+     * Highlights the edge of the grid the hint points to.
+     */
+    void drawHint() {
+        Rectangle bar;
+        switch (hint) {
+            case UP:
+                bar = new Rectangle(170, 55, 460, 10);
+                break;
+            case DOWN:
+                bar = new Rectangle(170, 536, 460, 10);
+                break;
+            case LEFT:
+                bar = new Rectangle(155, 70, 10, 460);
+                break;
+            default:
+                bar = new Rectangle(636, 70, 10, 460);
+                break;
+        }
+        bar.setArcWidth(5);
+        bar.setArcHeight(5);
+        bar.setFill(hintColor);
+        boardNodes.add(bar);
+    }
+
+    /**
+     * Moves all tiles in a direction, see {@link Game#move}.
+     *
+     * @param direction the direction to move in.
+     * @return if any tile is moved.
+     */
+    boolean move(Direction direction) {
+        boolean wasRunning = game.getState() == State.running;
+        boolean isMoved = game.move(direction);
+        recordIfOver(wasRunning);
+        return isMoved;
+    }
+
+    /**
+     * Each of the following four methods moves all tiles in a certain direction.
+     *
+     * @return if there is any tile able to move in that direction.
+     */
+    boolean moveUp() {
+        return move(Direction.UP);
+    }
+
+    boolean moveDown() {
+        return move(Direction.DOWN);
+    }
+
+    boolean moveLeft() {
+        return move(Direction.LEFT);
+    }
+
+    boolean moveRight() {
+        return move(Direction.RIGHT);
+    }
+
+    /**
+     * Applies a sequence of moves in one go, e.g. the batched input of a network client or a test bot. The game is
+     * locked once, nothing is drawn between the moves and the view is redrawn once at the end, on the application
+     * thread.
+     *
+     * @param moves the moves.
+     * @return the board, score and state after the moves, and how many were applied before the game ended.
+     */
+    public Game.Result applyMoves(Direction... moves) {
+        Game.Result result;
+        synchronized (lock) {
+            boolean wasRunning = game.getState() == State.running;
+            result = game.applyMoves(moves);
+            recordIfOver(wasRunning);
+        }
+        Platform.runLater(() -> {
+            synchronized (lock) {
+                draw();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Records the final score once, when the game stops running.
+     *
+     * @param wasRunning if the game was running before the last moves.
+     */
+    void recordIfOver(boolean wasRunning) {
+        if (wasRunning && game.getState() != State.running) {
+            if (leaderboard == null)
+                leaderboard = Leaderboard.shared();
+            leaderboard.record(game.getScore());
+            rank = leaderboard.rank(game.getScore());
+        }
+    }
+
+    @Override
+    public void start(Stage stage) throws Exception {
+        Scene scene = new Scene(pane, 900, 600);
+        scene.setOnKeyPressed(new EventHandler<KeyEvent>() {
+            @Override
+            public void handle(KeyEvent keyEvent) {
+                synchronized (lock) {
+                    switch (keyEvent.getCode()) {
+                        case UP:
+                            moveUp();
+                            break;
+                        case DOWN:
+                            moveDown();
+                            break;
+                        case LEFT:
+                            moveLeft();
+                            break;
+                        case RIGHT:
+                            moveRight();
+                            break;
+                        case A:
+                            toggleAutoPlay();
+                            break;
+                        case H:
+                            showHint();
+                            break;
+                        case EQUALS:
+                        case PLUS:
+                        case ADD:
+                            autoPlayer().faster();
+                            break;
+                        case MINUS:
+                        case SUBTRACT:
+                            autoPlayer().slower();
+                            break;
+                    }
+                    draw();
+                }
+            }
+        });
+        if (Boolean.getBoolean(STARTUP_PROPERTY)) {
+            scene.addPostLayoutPulseListener(new Runnable() {
+                @Override
+                public void run() {
+                    scene.removePostLayoutPulseListener(this);
+                    reportStartup();
+                }
+            });
+        }
+        stage.setScene(scene);
+        stage.setTitle("2048");
+        stage.show();
+        if (getParameters().getRaw().contains("--train"))
+            train();
+    }
+
+    /**
+     * Keeps the scores of the training run out of the leaderboard of the player.
+     *
+     * @throws IOException if the scratch file cannot be created.
+     */
+    static void useScratchLeaderboard() throws IOException {
+        Path scores = Files.createTempFile("game2048-train", ".scores");
+        scores.toFile().deleteOnExit();
+        System.setProperty(Leaderboard.PROPERTY, scores.toString());
+    }
+
+    /**
+     * Starts the game, or with {@code --train} the training run of the launcher. With {@code --report-startup} the time
+     * to the first frame is printed.
+     *
+     * @param args the command line arguments.
+     * @throws IOException if the training run cannot set up its leaderboard.
+     */
+    public static void main(String[] args) throws IOException {
+        boolean train = Arrays.asList(args).contains("--train");
+        if (train)
+            useScratchLeaderboard();
+        if (train || Arrays.asList(args).contains("--report-startup"))
+            System.setProperty(STARTUP_PROPERTY, "true");
+        launch(args);
+    }
+}
@@ -1,8 +1,7 @@
 module com.example.game2048_javafx {
     requires javafx.controls;
-    requires javafx.fxml;
+    requires java.management;
+    requires com.example.game2048.core;
 
-
-    opens com.example.game2048_javafx to javafx.fxml;
     exports com.example.game2048_javafx;
-}
\ No newline at end of file
+}
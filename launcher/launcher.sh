@@ -0,0 +1,22 @@
+#!/bin/sh
+# Starts @image.module@ from its runtime image.
+#
+# "@image.launcher@ --train" plays a scripted game and records the classes it loads in a class data sharing archive,
+# which every later start maps instead of loading and verifying those classes again. The JVM ignores an archive
+# that does not match the image, so a stale archive only costs the speedup; run the training again after updating.
+# The arguments, e.g. --report-startup, go to the game; JVM options are taken from JDK_JAVA_OPTIONS.
+DIR=$(cd "$(dirname "$0")/.." && pwd)
+MAIN=@image.module@/@image.main@
+ARCHIVE="$DIR/lib/@image.launcher@.jsa"
+
+if [ "$1" = "--train" ]; then
+    # The archive is layered on the archive of the JDK classes, which jlink does not create.
+    if [ ! -f "$DIR/lib/server/classes.jsa" ]; then
+        "$DIR/bin/java" -Xshare:dump > /dev/null || exit 1
+    fi
+    exec "$DIR/bin/java" -XX:ArchiveClassesAtExit="$ARCHIVE" -m "$MAIN" "$@"
+fi
+if [ -f "$ARCHIVE" ]; then
+    exec "$DIR/bin/java" -XX:SharedArchiveFile="$ARCHIVE" -m "$MAIN" "$@"
+fi
+exec "$DIR/bin/java" -m "$MAIN" "$@"
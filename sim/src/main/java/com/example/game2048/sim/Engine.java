@@ -0,0 +1,66 @@
+package com.example.game2048.sim;
+
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.Game;
+
+/**
+ * A game implementation driven by the simulators, so that different engines can be played side by side.
+ */
+public interface Engine {
+    /**
+     * Starts a game if none is running.
+     */
+    void start();
+
+    /**
+     * Moves all tiles in a direction.
+     *
+     * @param direction the direction to move in.
+     * @return if any tile is moved.
+     */
+    boolean move(Direction direction);
+
+    /**
+     * @return the board packed like {@link com.example.game2048.core.Board}.
+     */
+    long board();
+
+    int score();
+
+    Game.State state();
+
+    /**
+     * Wraps the packed board engine.
+     *
+     * @param game the game to drive.
+     * @return the engine.
+     */
+    static Engine of(Game game) {
+        return new Engine() {
+            @Override
+            public void start() {
+                game.start();
+            }
+
+            @Override
+            public boolean move(Direction direction) {
+                return game.move(direction);
+            }
+
+            @Override
+            public long board() {
+                return game.getBoard();
+            }
+
+            @Override
+            public int score() {
+                return game.getScore();
+            }
+
+            @Override
+            public Game.State state() {
+                return game.getState();
+            }
+        };
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.game2048.sim;
+
+import com.example.game2048.core.Board;
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.Game;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Regression harness playing the same seeded games on a reference and a candidate engine, by default
+ * {@link LegacyGame} and the packed board {@link Game}.
+ * Both engines get the same seed for their new tiles and the same random moves, and must report the same result,
+ * board, score and state after every move. Games run on all cores and stop at the first difference, which is shrunk
+ * to a short move sequence still showing it.
+ * <p>
+ * Usage: {@code GoldenGames [games] [threads] [first seed]}, exits with status 1 if the engines differ.
+ */
+public final class GoldenGames {
+    private static final int MAX_MOVES = 100_000;
+    private static final int REPORT_EVERY = 100_000;
+    // Moves are drawn from their own generator so they do not disturb the spawns of the engines.
+    private static final long MOVE_SALT = 0x5DEECE66DL;
+
+    private final LongFunction<Engine> reference;
+    private final LongFunction<Engine> candidate;
+
+    /**
+     * @param reference creates the reference engine for a seed.
+     * @param candidate creates the engine under test for a seed.
+     */
+    public GoldenGames(LongFunction<Engine> reference, LongFunction<Engine> candidate) {
+        this.reference = reference;
+        this.candidate = candidate;
+    }
+
+    /**
+     * A difference between the engines: the seed and the moves leading to it.
+     */
+    public static final class Divergence {
+        final long seed;
+        final byte[] moves;
+        final String detail;
+
+        Divergence(long seed, byte[] moves, String detail) {
+            this.seed = seed;
+            this.moves = moves;
+            this.detail = detail;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("seed ").append(seed).append(", moves ");
+            for (byte m : moves) {
+                sb.append(Direction.of(m).name().charAt(0));
+            }
+            return sb.append('\n').append(detail).toString();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long firstSeed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+        GoldenGames harness = new GoldenGames(LegacyGame::new, seed -> Engine.of(new Game(seed)));
+        long start = System.nanoTime();
+        Divergence divergence = harness.run(games, threads, firstSeed);
+        if (divergence != null) {
+            System.out.println("Engines differ, " + divergence);
+            System.exit(1);
+        }
+        System.out.printf("%d games identical in %.1f s%n", games, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Plays games with consecutive seeds on several threads.
+     *
+     * @param games the number of games.
+     * @param threads the number of threads.
+     * @param firstSeed the seed of the first game.
+     * @return the shrunk difference with the lowest seed found before stopping, null if all games are identical.
+     * @throws InterruptedException if interrupted while waiting for the threads.
+     */
+    public Divergence run(long games, int threads, long firstSeed) throws InterruptedException {
+        AtomicLong next = new AtomicLong();
+        AtomicBoolean stop = new AtomicBoolean();
+        Divergence[] first = new Divergence[1];
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                long i;
+                while (!stop.get() && (i = next.getAndIncrement()) < games) {
+                    Divergence d = play(firstSeed + i);
+                    if (d != null) {
+                        stop.set(true);
+                        synchronized (first) {
+                            if (first[0] == null || d.seed < first[0].seed)
+                                first[0] = d;
+                        }
+                    }
+                    if ((i + 1) % REPORT_EVERY == 0)
+                        System.out.println((i + 1) + " games played");
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        return first[0] == null ? null : shrink(first[0]);
+    }
+
+    /**
+     * Plays one game with random moves until it is over.
+     *
+     * @param seed the seed of the engines and the moves.
+     * @return the difference, null if the engines agree.
+     */
+    public Divergence play(long seed) {
+        Random moves = new Random(seed ^ MOVE_SALT);
+        byte[] played = new byte[64];
+        Engine a = reference.apply(seed);
+        Engine b = candidate.apply(seed);
+        a.start();
+        b.start();
+        String detail = compare(a, b, true, true);
+        for (int n = 0; detail == null && n < MAX_MOVES; n++) {
+            if (a.state() == Game.State.over || !Board.canMove(a.board()))
+                return null;
+            Direction d = Direction.of(moves.nextInt(4));
+            if (n == played.length)
+                played = Arrays.copyOf(played, 2 * n);
+            played[n] = (byte) d.ordinal();
+            detail = compare(a, b, a.move(d), b.move(d));
+            if (detail != null)
+                return new Divergence(seed, Arrays.copyOf(played, n + 1), detail);
+        }
+        return detail == null ? null : new Divergence(seed, new byte[0], detail);
+    }
+
+    /**
+     * Replays a fixed sequence of moves.
+     *
+     * @return the difference with the moves up to it, null if the engines agree.
+     */
+    Divergence replay(long seed, byte[] moves) {
+        Engine a = reference.apply(seed);
+        Engine b = candidate.apply(seed);
+        a.start();
+        b.start();
+        String detail = compare(a, b, true, true);
+        if (detail != null)
+            return new Divergence(seed, new byte[0], detail);
+        for (int n = 0; n < moves.length; n++) {
+            Direction d = Direction.of(moves[n]);
+            detail = compare(a, b, a.move(d), b.move(d));
+            if (detail != null)
+                return new Divergence(seed, Arrays.copyOf(moves, n + 1), detail);
+        }
+        return null;
+    }
+
+    /**
+     * Removes moves one at a time as long as the engines still differ.
+     */
+    Divergence shrink(Divergence divergence) {
+        Divergence best = divergence;
+        for (int i = best.moves.length - 1; i >= 0; i--) {
+            if (i >= best.moves.length)
+                continue;
+            byte[] fewer = new byte[best.moves.length - 1];
+            System.arraycopy(best.moves, 0, fewer, 0, i);
+            System.arraycopy(best.moves, i + 1, fewer, i, fewer.length - i);
+            Divergence d = replay(best.seed, fewer);
+            if (d != null)
+                best = d;
+        }
+        return best;
+    }
+
+    private static String compare(Engine a, Engine b, boolean movedA, boolean movedB) {
+        if (movedA == movedB && a.board() == b.board() && a.score() == b.score() && a.state() == b.state())
+            return null;
+        return String.format("reference: moved %b, score %d, state %s%n%scandidate: moved %b, score %d, state %s%n%s",
+                movedA, a.score(), a.state(), Board.toString(a.board()),
+                movedB, b.score(), b.state(), Board.toString(b.board()));
+    }
+}
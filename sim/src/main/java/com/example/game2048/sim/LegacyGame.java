@@ -0,0 +1,206 @@
+package com.example.game2048.sim;
+
+import com.example.game2048.core.Board;
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.Game;
+
+import java.util.Random;
+
+/**
+ * The original {@code Tile[][]} game logic of {@code Game2048}, kept without any UI as the reference the packed board
+ * engine is checked against. The methods are copied unchanged from the front ends; do not optimize them.
+ */
+public class LegacyGame implements Engine {
+    private static final int SIDE = 4;
+    private static final int TARGET = 2048;
+    private int score;
+    private Game.State gameState = Game.State.start;
+    private final Random random;
+    private boolean checkAvailableMove;
+    private Tile[][] tiles;
+
+    public LegacyGame(long seed) {
+        random = new Random(seed);
+    }
+
+    /**
+     * Method for starting the game. Sets variables to initial values, adds two tiles to grid.
+     */
+    @Override
+    public void start() {
+        if (gameState == Game.State.running)
+            return;
+        score = 0;
+        tiles = new Tile[SIDE][SIDE];
+        gameState = Game.State.running;
+        addRandomTile();
+        addRandomTile();
+    }
+
+    /**
+     * Moves the tiles successively in the table based on start point and direction.
+     *
+     * @param startPoint specifies the grid to be moved first, e.g. the top left one when moving up or left,
+     *                   the bottom right one when moving down or right.
+     * @param xOffset the increment in rows. -1 when moving up and 1 when moving down.
+     * @param yOffset the increment in columns. -1 when moving left and 1 when moving right.
+     * @return if any tile is moved or able to be moved.
+     */
+    boolean move(int startPoint, int xOffset, int yOffset) {
+        boolean isMoved = false;
+        for (int i = 0; i < SIDE * SIDE; i++) {
+            int x = Math.abs(startPoint - i) / SIDE;
+            int y = Math.abs(startPoint - i) % SIDE;
+            if (tiles[x][y] == null)
+                continue;
+            int nextX = x + xOffset;
+            int nextY = y + yOffset;
+
+            while (nextX >= 0 && nextX < SIDE && nextY >= 0 && nextY < SIDE) {
+                Tile current = tiles[x][y];
+                Tile next = tiles[nextX][nextY];
+
+                if (tiles[nextX][nextY] == null) {
+                    if (checkAvailableMove)
+                        return true;
+                    tiles[nextX][nextY] = current;
+                    tiles[x][y] = null;
+                    x = nextX;
+                    y = nextY;
+                    nextX += xOffset;
+                    nextY += yOffset;
+                    isMoved = true;
+                } else if (next.canMergeWith(current)) {
+                    if (checkAvailableMove)
+                        return true;
+                    next.mergeWith(current);
+                    score += next.getValue();
+                    tiles[x][y] = null;
+                    isMoved = true;
+                    break;
+                } else {
+                    break;
+                }
+            }
+        }
+
+        if (isMoved) {
+            clearMerge();
+            addRandomTile();
+            if (!moveAvailable()) {
+                gameState = Game.State.over;
+            }
+            if (score == TARGET) {
+                gameState = Game.State.won;
+            }
+        }
+        return isMoved;
+    }
+
+    boolean moveUp() {
+        return move(0, -1, 0);
+    }
+
+    boolean moveDown() {
+        return move(SIDE * SIDE - 1, 1, 0);
+    }
+
+    boolean moveLeft() {
+        return move(0, 0, -1);
+    }
+
+    boolean moveRight() {
+        return move(SIDE * SIDE - 1, 0, 1);
+    }
+
+    boolean moveAvailable() {
+        checkAvailableMove = true;
+        boolean canMove = moveUp() || moveDown() || moveLeft() || moveRight();
+        checkAvailableMove = false;
+        return canMove;
+    }
+
+    void clearMerge() {
+        for (int i = 0; i < SIDE; i++) {
+            for (int j = 0; j < SIDE; j++) {
+                if (tiles[i][j] == null)
+                    continue;
+                tiles[i][j].clearMerge();
+            }
+        }
+    }
+
+    void addRandomTile() {
+        int row, col;
+        do {
+            row = random.nextInt(SIDE);
+            col = random.nextInt(SIDE);
+        } while (tiles[row][col] != null);
+        int val = random.nextInt(2) == 0 ? 2 : 4;
+        tiles[row][col] = new Tile(val);
+    }
+
+    @Override
+    public boolean move(Direction direction) {
+        switch (direction) {
+            case UP:
+                return moveUp();
+            case DOWN:
+                return moveDown();
+            case LEFT:
+                return moveLeft();
+            default:
+                return moveRight();
+        }
+    }
+
+    @Override
+    public long board() {
+        long board = 0;
+        for (int i = 0; i < SIDE; i++) {
+            for (int j = 0; j < SIDE; j++) {
+                if (tiles[i][j] != null)
+                    board = Board.with(board, i, j, Board.exponentOf(tiles[i][j].getValue()));
+            }
+        }
+        return board;
+    }
+
+    @Override
+    public int score() {
+        return score;
+    }
+
+    @Override
+    public Game.State state() {
+        return gameState;
+    }
+
+    private static class Tile {
+        private boolean isMerged;
+        private int val;
+
+        Tile(int val) {
+            this.val = val;
+        }
+
+        int getValue() {
+            return val;
+        }
+
+        void clearMerge() {
+            isMerged = false;
+        }
+
+        boolean canMergeWith(Tile t) {
+            return !isMerged && !t.isMerged && val == t.getValue();
+        }
+
+        void mergeWith(Tile t) {
+            if (!canMergeWith(t))
+                return;
+            val *= 2;
+            isMerged = true;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+module com.example.game2048.sim {
+    requires com.example.game2048.core;
+
+    exports com.example.game2048.sim;
+}
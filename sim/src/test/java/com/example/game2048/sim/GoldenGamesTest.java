@@ -0,0 +1,33 @@
+package com.example.game2048.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.example.game2048.core.Game;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Gates the build on the packed board engine playing exactly like the original one, see {@link GoldenGames}.
+ */
+class GoldenGamesTest {
+    private static final int GAMES = 3000;
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+    @Test
+    void packedEnginePlaysLikeTheLegacyGame() throws InterruptedException {
+        GoldenGames harness = new GoldenGames(LegacyGame::new, seed -> Engine.of(new Game(seed)));
+        GoldenGames.Divergence divergence = harness.run(GAMES, THREADS, 0);
+        assertNull(divergence, () -> "Engines differ, " + divergence);
+    }
+
+    @Test
+    void differentEnginesAreCaughtAndShrunk() throws InterruptedException {
+        // Spawns from another seed differ from the first tile on, so the shortest difference has no moves.
+        GoldenGames harness = new GoldenGames(LegacyGame::new, seed -> Engine.of(new Game(seed + 1)));
+        GoldenGames.Divergence divergence = harness.run(10, 1, 0);
+        assertNotNull(divergence);
+        assertEquals(0, divergence.seed);
+        assertEquals(0, divergence.moves.length);
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.game2048.swing;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import com.example.game2048.core.Board;
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.Game;
+
+/**
+ * Draws the board of the Swing {@link Game2048}, on screen or offscreen without a window, e.g. for share images and
+ * replays on a server. The tiles are drawn once per exponent and then copied, and as nothing changes after
+ * construction one renderer can be used by any number of threads.
+ */
+public class BoardRenderer {
+    public static final int WIDTH = 900;
+    public static final int HEIGHT = 600;
+    private static final Color GRID_COLOR = new Color(0x987A5E35, true);
+    private static final Color EMPTY_COLOR = new Color(0x98FFDFCD, true);
+    private static final Color TILE_COLOR = new Color(0xCBFFDFCD);
+    private static final Color TEXT_COLOR = new Color(0xCC4C1D);
+    private static final Font TITLE_FONT = new Font("SansSerif", Font.BOLD, 100);
+    private static final Font GAME_OVER_FONT = new Font("SansSerif", Font.BOLD, 50);
+    private static final Font TILE_FONT = new Font("SansSerif", Font.BOLD, 40);
+    private static final Font SCORE_FONT = new Font("SansSerif", Font.BOLD, 30);
+    private static final Font RESULT_FONT = new Font("SansSerif", Font.BOLD, 25);
+    private static final Font INSTRUCTION_FONT = new Font("SansSerif", Font.BOLD, 20);
+
+    // Images of the grids by exponent, the empty grid at 0, and where they start left of the grid. The text of large
+    // values is wider than the tile.
+    private final BufferedImage[] tiles = new BufferedImage[Board.MAX_EXPONENT + 1];
+    private final int[] tileOffsets = new int[Board.MAX_EXPONENT + 1];
+    // The white background with the grid, copied to start each offscreen image.
+    private final BufferedImage background;
+
+    public BoardRenderer() {
+        Graphics2D scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        FontMetrics metrics = scratch.getFontMetrics(TILE_FONT);
+        scratch.dispose();
+        for (int exponent = 0; exponent < tiles.length; exponent++) {
+            int val = 1 << exponent;
+            String text = String.valueOf(val);
+            int textX = (int) (220 - 8 * Math.log(val)) - 170;
+            int left = 0;
+            int right = 100;
+            if (exponent > 0) {
+                left = Math.min(left, textX);
+                right = Math.max(right, textX + metrics.stringWidth(text));
+            }
+            BufferedImage tile = new BufferedImage(right - left, 100, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2 = tile.createGraphics();
+            g2.translate(-left, 0);
+            if (exponent == 0) {
+                g2.setColor(EMPTY_COLOR);
+                g2.fillRoundRect(0, 0, 100, 100, 7, 7);
+            } else {
+                g2.setColor(TILE_COLOR);
+                g2.fillRoundRect(0, 0, 100, 100, 7, 7);
+                g2.setFont(TILE_FONT);
+                g2.setColor(TEXT_COLOR);
+                g2.drawString(text, textX, 60);
+            }
+            g2.dispose();
+            tiles[exponent] = tile;
+            tileOffsets[exponent] = left;
+        }
+
+        background = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = background.createGraphics();
+        g2.setColor(Color.WHITE);
+        g2.fillRect(0, 0, WIDTH, HEIGHT);
+        drawGrid(g2);
+        g2.dispose();
+    }
+
+    /**
+     * Draws the grid and, depending on the state of the game, the start screen, the result or the tiles and the score.
+     *
+     * @param g2 the Graphics2D object to be modified.
+     * @param board the packed board.
+     * @param score the score.
+     * @param state the state of the game.
+     */
+    public void draw(Graphics2D g2, long board, int score, Game.State state) {
+        drawGrid(g2);
+        drawContent(g2, board, score, state);
+    }
+
+    /**
+     * Creates a square for the game.
+     *
+     * @param g2 the Graphics2D object to be modified.
+     */
+    void drawGrid(Graphics2D g2) {
+        g2.setColor(GRID_COLOR);
+        g2.fillRoundRect(150, 50, 501, 501, 15, 15);
+    }
+
+    /**
+     * Draws what is on the grid.
+     *
+     * @param g2 the Graphics2D object to be modified.
+     * @param board the packed board.
+     * @param score the score.
+     * @param state the state of the game.
+     */
+    void drawContent(Graphics2D g2, long board, int score, Game.State state) {
+        if (state == Game.State.start) {
+            g2.setColor(TEXT_COLOR);
+            g2.setFont(TITLE_FONT);
+            g2.drawString("2048", 270, 200);
+            g2.setFont(INSTRUCTION_FONT);
+            g2.drawString("click to start", 330, 400);
+            g2.drawString("use arrow keys to move", 280, 450);
+            g2.drawString("press A to auto play, H for a hint", 235, 500);
+        } else if (state == Game.State.won) {
+            g2.setColor(TEXT_COLOR);
+            g2.setFont(SCORE_FONT);
+            g2.drawString("Target achieved!", 350, 300);
+        } else if (state == Game.State.over) {
+            g2.setColor(TEXT_COLOR);
+            g2.setFont(GAME_OVER_FONT);
+            g2.drawString("Game over", 280, 300);
+            g2.setFont(RESULT_FONT);
+            g2.drawString("Score: " + score, 320, 380);
+            g2.drawString("Click to start a new game", 260, 420);
+        } else {
+            // Rows are drawn top down and grids left to right, so the text of a large tile runs under its neighbour.
+            for (int i = 0; i < Board.SIDE; i++) {
+                for (int j = 0; j < Board.SIDE; j++) {
+                    int exponent = Board.get(board, i, j);
+                    g2.drawImage(tiles[exponent], 170 + tileOffsets[exponent] + j * 120, 70 + i * 120, null);
+                }
+            }
+            // updates score of the game
+            g2.setFont(SCORE_FONT);
+            g2.setColor(TEXT_COLOR);
+            g2.drawString("SCORE: " + score, 680, 130);
+        }
+    }
+
+    /**
+     * Renders the game on a white background like the window shows it.
+     *
+     * @param board the packed board.
+     * @param score the score.
+     * @param state the state of the game.
+     * @return the image, {@value #WIDTH} by {@value #HEIGHT} pixels.
+     */
+    public BufferedImage render(long board, int score, Game.State state) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.drawImage(background, 0, 0, null);
+        drawContent(g2, board, score, state);
+        g2.dispose();
+        return image;
+    }
+
+    /**
+     * Renders the game to raw pixels.
+     *
+     * @param board the packed board.
+     * @param score the score.
+     * @param state the state of the game.
+     * @return the red, green, blue and alpha bytes of the pixels, row by row.
+     */
+    public byte[] renderRgba(long board, int score, Game.State state) {
+        int[] argb = ((DataBufferInt) render(board, score, state).getRaster().getDataBuffer()).getData();
+        byte[] rgba = new byte[4 * argb.length];
+        for (int i = 0; i < argb.length; i++) {
+            int pixel = argb[i];
+            rgba[4 * i] = (byte) (pixel >>> 16);
+            rgba[4 * i + 1] = (byte) (pixel >>> 8);
+            rgba[4 * i + 2] = (byte) pixel;
+            rgba[4 * i + 3] = (byte) (pixel >>> 24);
+        }
+        return rgba;
+    }
+
+    /**
+     * Renders the game as a PNG image.
+     *
+     * @param board the packed board.
+     * @param score the score.
+     * @param state the state of the game.
+     * @param out the stream to write to, which is left open.
+     * @throws IOException if the image cannot be written.
+     */
+    public void writePng(long board, int score, Game.State state, OutputStream out) throws IOException {
+        // Buffers in memory, by default ImageIO buffers streams in a temporary file.
+        try (ImageOutputStream stream = new MemoryCacheImageOutputStream(out)) {
+            ImageIO.write(render(board, score, state), "png", stream);
+        }
+    }
+
+    /**
+     * Replays a game and writes a PNG image of every position, {@code frame-00000.png} for the start and one more for
+     * each move that changes the board, until the game ends. The game is replayed first, then the frames are rendered
+     * in parallel.
+     *
+     * @param seed the seed of the game.
+     * @param moves the moves of the game.
+     * @param directory the directory to write the images to, which must exist.
+     * @return the number of images.
+     * @throws IOException if an image cannot be written.
+     */
+    public int writeReplay(long seed, Direction[] moves, Path directory) throws IOException {
+        long[] boards = new long[moves.length + 1];
+        int[] scores = new int[moves.length + 1];
+        Game.State[] states = new Game.State[moves.length + 1];
+        Game game = new Game(seed);
+        game.start();
+        int frames = 0;
+        boards[frames] = game.getBoard();
+        scores[frames] = game.getScore();
+        states[frames++] = game.getState();
+        for (int i = 0; i < moves.length && game.getState() == Game.State.running; i++) {
+            if (!game.move(moves[i]))
+                continue;
+            boards[frames] = game.getBoard();
+            scores[frames] = game.getScore();
+            states[frames++] = game.getState();
+        }
+
+        try {
+            IntStream.range(0, frames).parallel().forEach(i -> {
+                Path file = directory.resolve(String.format("frame-%05d.png", i));
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                    writePng(boards[i], scores[i], states[i], out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return frames;
+    }
+
+    /**
+     * Writes the frames of a replay, see {@link #writeReplay}.
+     *
+     * @param args the seed, the moves as a string of U, D, L and R, and the output directory.
+     * @throws IOException if an image cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: BoardRenderer <seed> <moves> <output directory>");
+            System.exit(2);
+        }
+        long seed = Long.parseLong(args[0]);
+        Direction[] moves = args[1].chars()
+                .mapToObj(c -> Arrays.stream(Direction.values()).filter(d -> d.name().charAt(0) == c).findFirst()
+                        .orElseThrow(() -> new IllegalArgumentException("Not a move: " + (char) c)))
+                .toArray(Direction[]::new);
+        Path directory = Paths.get(args[2]);
+        Files.createDirectories(directory);
+        long start = System.nanoTime();
+        int frames = new BoardRenderer().writeReplay(seed, moves, directory);
+        System.out.printf("%d frames written in %.1f s%n", frames, (System.nanoTime() - start) / 1e9);
+    }
+}
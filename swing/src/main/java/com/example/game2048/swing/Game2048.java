@@ -0,0 +1,432 @@
+package com.example.game2048.swing;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.swing.*;
+
+import com.example.game2048.ai.AutoPlayer;
+import com.example.game2048.ai.Hints;
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.Game;
+import com.example.game2048.core.Game.State;
+import com.example.game2048.leaderboard.Leaderboard;
+
+/**
+ * Constructs game 2048.
+ *
+ * @author Dian Yang
+ * @version 1.0
+ */
+public class Game2048 extends JPanel {
+    private static final int FRAME_RATE = 60;
+    // Moves of the scripted game of the training run, one per frame, before the auto player takes over for a second.
+    private static final int TRAINING_MOVES = 200;
+    /**
+     * System property that, set to true, prints the time to the first frame on every start, as the training run does.
+     * Set by the {@code --report-startup} argument, which also reaches the game through the launcher of the image.
+     */
+    public static final String STARTUP_PROPERTY = "game2048.reportStartup";
+    private final Game game = new Game();
+    private final Color textColor = new Color(0xCC4C1D);
+    private final Color hintColor = new Color(0xE0CC4C1D, true);
+    // Guards the game state, which is changed by the auto player thread as well as the event dispatch thread.
+    private final Object lock = new Object();
+    private final Timer frameTimer;
+    private final BoardRenderer renderer = new BoardRenderer();
+    // The solver tables and the scores file take a while to set up, so they are created when first needed, after the
+    // first frame: the player on the first A or speed key, the hints on the first H and the leaderboard when a game
+    // ends. Guarded by the lock.
+    private AutoPlayer autoPlayer;
+    private Leaderboard leaderboard;
+    // Sets up the hints and searches them off the event dispatch thread, which goes on drawing and taking keys meanwhile.
+    private final ExecutorService hintSearch = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "hints");
+        t.setDaemon(true);
+        return t;
+    });
+    // Only used by the hint thread.
+    private Hints hints;
+    // If a hint is being searched, guarded by the lock.
+    private boolean hintSearching;
+    // Rank of the score of the last finished game.
+    private int rank;
+    // The last hint and the board it was given for, it is only shown while the board is unchanged.
+    private Direction hint;
+    private long hintBoard;
+    private boolean painted;
+
+    /**
+     * Constructor. Sets features of the window.
+     */
+    public Game2048() {
+        setPreferredSize(new Dimension(900, 600));
+        setBackground(Color.WHITE);
+        setFocusable(true);
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                synchronized (lock) {
+                    startGame();
+                }
+                repaint();
+            }
+        });
+
+        addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                synchronized (lock) {
+                    switch (e.getKeyCode()) {
+                        case KeyEvent.VK_UP:
+                            moveUp();
+                            break;
+                        case KeyEvent.VK_DOWN:
+                            moveDown();
+                            break;
+                        case KeyEvent.VK_LEFT:
+                            moveLeft();
+                            break;
+                        case KeyEvent.VK_RIGHT:
+                            moveRight();
+                            break;
+                        case KeyEvent.VK_A:
+                            toggleAutoPlay();
+                            break;
+                        case KeyEvent.VK_H:
+                            showHint();
+                            break;
+                        case KeyEvent.VK_EQUALS:
+                        case KeyEvent.VK_PLUS:
+                            autoPlayer().faster();
+                            break;
+                        case KeyEvent.VK_MINUS:
+                            autoPlayer().slower();
+                            break;
+                    }
+                }
+                repaint();
+            }
+        });
+
+        // While auto playing the view is redrawn at a fixed frame rate instead of after every move.
+        frameTimer = new Timer(1000 / FRAME_RATE, e -> {
+            repaint();
+            synchronized (lock) {
+                if (!isAutoPlaying())
+                    ((Timer) e.getSource()).stop();
+            }
+        });
+    }
+
+    /**
+     * @return the auto player, created on first use.
+     */
+    AutoPlayer autoPlayer() {
+        if (autoPlayer != null)
+            return autoPlayer;
+        autoPlayer = new AutoPlayer(new AutoPlayer.Host() {
+            @Override
+            public boolean isRunning() {
+                synchronized (lock) {
+                    return game.getState() == State.running;
+                }
+            }
+
+            @Override
+            public long board() {
+                synchronized (lock) {
+                    return game.getBoard();
+                }
+            }
+
+            @Override
+            public void play(long board, Direction direction) {
+                synchronized (lock) {
+                    if (game.getState() == State.running && game.getBoard() == board)
+                        move(direction);
+                }
+            }
+        });
+        return autoPlayer;
+    }
+
+    /**
+     * @return if the auto player exists and is playing.
+     */
+    boolean isAutoPlaying() {
+        return autoPlayer != null && autoPlayer.isPlaying();
+    }
+
+    /**
+     * Asks for the recommended move on the current board. It is searched on the hint thread and highlighted once found,
+     * until the next move.
+     */
+    void showHint() {
+        if (game.getState() != State.running || hintSearching)
+            return;
+        hintSearching = true;
+        long board = game.getBoard();
+        hintSearch.execute(() -> {
+            Direction d = null;
+            try {
+                if (hints == null)
+                    hints = new Hints();
+                d = hints.hint(board);
+            } finally {
+                Direction found = d;
+                SwingUtilities.invokeLater(() -> {
+                    synchronized (lock) {
+                        hintFound(board, found);
+                    }
+                    repaint();
+                });
+            }
+        });
+    }
+
+    /**
+     * Shows a hint found on the hint thread, if the board is still the one it was searched for.
+     *
+     * @param board the packed board the hint was searched for.
+     * @param direction the recommended direction, null if none was found.
+     */
+    void hintFound(long board, Direction direction) {
+        hintSearching = false;
+        hint = direction;
+        hintBoard = board;
+    }
+
+    /**
+     * Starts or stops the auto player. Starts a new game first if no game is running.
+     */
+    void toggleAutoPlay() {
+        if (isAutoPlaying()) {
+            autoPlayer.stop();
+            return;
+        }
+        startGame();
+        autoPlayer().start();
+        frameTimer.start();
+    }
+
+    /**
+     * Plays a scripted game and exits, the training run for the class data sharing archive of the launcher. The script
+     * goes through the same methods as the keys, so the archive holds the classes a real session loads.
+     */
+    void train() {
+        Timer script = new Timer(1000 / FRAME_RATE, null);
+        script.addActionListener(new ActionListener() {
+            private int step;
+
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                synchronized (lock) {
+                    if (step == 0) {
+                        startGame();
+                        showHint();
+                    } else if (step <= TRAINING_MOVES) {
+                        if (game.getState() == State.running)
+                            move(Direction.of(step % 4));
+                    } else if (step == TRAINING_MOVES + 1) {
+                        toggleAutoPlay();
+                    } else if (step == TRAINING_MOVES + 1 + FRAME_RATE) {
+                        System.exit(0);
+                    }
+                }
+                step++;
+                repaint();
+            }
+        });
+        script.start();
+    }
+
+    /**
+     * Method for starting the game. Sets variables to initial values, adds two tiles to grid.
+     */
+    void startGame() {
+        game.start();
+    }
+
+    @Override
+    public void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2 = (Graphics2D) g;
+        synchronized (lock) {
+            draw(g2);
+        }
+        if (!painted) {
+            painted = true;
+            if (Boolean.getBoolean(STARTUP_PROPERTY))
+                reportStartup();
+        }
+    }
+
+    /**
+     * Prints the time from the start of the process to the first frame, which the class data sharing archive of the
+     * launcher brings down.
+     */
+    static void reportStartup() {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        System.err.println("First frame " + uptime + " ms after start");
+    }
+
+    /**
+     * Draws different objects on the window based on state of game. It is called every time the window is repainted.
+     *
+     * @param g2 the Graphics2D object to be modified.
+     */
+    void draw(Graphics2D g2) {
+        renderer.draw(g2, game.getBoard(), game.getScore(), game.getState());
+        if (game.getState() == State.over || game.getState() == State.won) {
+            // The rank of the score just recorded, see recordIfOver.
+            g2.setColor(textColor);
+            g2.setFont(new Font("SansSerif", Font.BOLD, 25));
+            if (leaderboard != null)
+                g2.drawString("Rank: " + rank + " of " + leaderboard.size(), 320, 460);
+        } else if (game.getState() == State.running) {
+            if (hint != null && hintBoard == game.getBoard())
+                drawHint(g2);
+            if (isAutoPlaying()) {
+                g2.setColor(textColor);
+                g2.setFont(new Font("SansSerif", Font.BOLD, 16));
+                g2.drawString("AUTO: " + autoPlayer.getSpeedLabel(), 680, 170);
+                g2.drawString("+/- to change speed", 680, 195);
+            }
+        }
+    }
+
+    /**
+     * Highlights the edge of the grid the hint points to.
+     *
+     * @param g2 the Graphics2D object to be modified.
+     */
+    void drawHint(Graphics2D g2) {
+        g2.setColor(hintColor);
+        switch (hint) {
+            case UP:
+                g2.fillRoundRect(170, 55, 460, 10, 5, 5);
+                break;
+            case DOWN:
+                g2.fillRoundRect(170, 536, 460, 10, 5, 5);
+                break;
+            case LEFT:
+                g2.fillRoundRect(155, 70, 10, 460, 5, 5);
+                break;
+            case RIGHT:
+                g2.fillRoundRect(636, 70, 10, 460, 5, 5);
+                break;
+        }
+    }
+
+    /**
+     * Moves all tiles in a direction, see {@link Game#move}.
+     *
+     * @param direction the direction to move in.
+     * @return if any tile is moved.
+     */
+    boolean move(Direction direction) {
+        boolean wasRunning = game.getState() == State.running;
+        boolean isMoved = game.move(direction);
+        recordIfOver(wasRunning);
+        return isMoved;
+    }
+
+    /**
+     * Each of the following four methods moves all tiles in a certain direction.
+     *
+     * @return if there is any tile able to move in that direction.
+     */
+    boolean moveUp() {
+        return move(Direction.UP);
+    }
+
+    boolean moveDown() {
+        return move(Direction.DOWN);
+    }
+
+    boolean moveLeft() {
+        return move(Direction.LEFT);
+    }
+
+    boolean moveRight() {
+        return move(Direction.RIGHT);
+    }
+
+    /**
+     * Applies a sequence of moves in one go, e.g. the batched input of a network client or a test bot. The game is
+     * locked once, nothing is drawn between the moves and the window is repainted once at the end.
+     *
+     * @param moves the moves.
+     * @return the board, score and state after the moves, and how many were applied before the game ended.
+     */
+    public Game.Result applyMoves(Direction... moves) {
+        Game.Result result;
+        synchronized (lock) {
+            boolean wasRunning = game.getState() == State.running;
+            result = game.applyMoves(moves);
+            recordIfOver(wasRunning);
+        }
+        repaint();
+        return result;
+    }
+
+    /**
+     * Records the final score once, when the game stops running.
+     *
+     * @param wasRunning if the game was running before the last moves.
+     */
+    void recordIfOver(boolean wasRunning) {
+        if (wasRunning && game.getState() != State.running) {
+            if (leaderboard == null)
+                leaderboard = Leaderboard.shared();
+            leaderboard.record(game.getScore());
+            rank = leaderboard.rank(game.getScore());
+        }
+    }
+
+    /**
+     * Keeps the scores of the training run out of the leaderboard of the player.
+     *
+     * @throws IOException if the scratch file cannot be created.
+     */
+    static void useScratchLeaderboard() throws IOException {
+        Path scores = Files.createTempFile("game2048-train", ".scores");
+        scores.toFile().deleteOnExit();
+        System.setProperty(Leaderboard.PROPERTY, scores.toString());
+    }
+
+    /**
+     * Starts the game, or with {@code --train} the training run of the launcher. With {@code --report-startup} the time
+     * to the first frame is printed.
+     *
+     * @param args the command line arguments.
+     * @throws IOException if the training run cannot set up its leaderboard.
+     */
+    public static void main(String[] args) throws IOException {
+        boolean train = Arrays.asList(args).contains("--train");
+        if (train)
+            useScratchLeaderboard();
+        if (train || Arrays.asList(args).contains("--report-startup"))
+            System.setProperty(STARTUP_PROPERTY, "true");
+        SwingUtilities.invokeLater(() -> {
+            JFrame f = new JFrame();
+            f.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            f.setTitle("2048");
+            f.setResizable(true);
+            Game2048 game = new Game2048();
+            f.add(game, BorderLayout.CENTER);
+            f.pack();
+            f.setLocationRelativeTo(null);
+            f.setVisible(true);
+            if (train)
+                game.train();
+        });
+    }
+}
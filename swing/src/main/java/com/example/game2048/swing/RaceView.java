@@ -0,0 +1,181 @@
+package com.example.game2048.swing;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.geom.AffineTransform;
+import java.util.Random;
+import javax.swing.*;
+
+import com.example.game2048.ai.AutoPlayer;
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.Game.State;
+import com.example.game2048.race.Race;
+
+/**
+ * Race against the solver: player 0 is moved with the arrow keys, the other players by {@link AutoPlayer}s, all on
+ * the same spawn sequence. The view shows every board live, reading them from the race without locking. A click
+ * starts the race, and once all games are over a new race with a new seed.
+ * <p>
+ * Usage: {@code RaceView [players] [first seed]}.
+ */
+public class RaceView extends JPanel {
+    private static final int FRAME_RATE = 60;
+    private final Color textColor = new Color(0xCC4C1D);
+    private final Random seeds;
+    private final BoardRenderer renderer = new BoardRenderer();
+    // Versions of the boards last painted, the view is only repainted when a player moved.
+    private final int[] painted;
+    private Race race;
+    private AutoPlayer[] bots;
+    private boolean started;
+
+    /**
+     * Constructor. Sets features of the window.
+     *
+     * @param players the number of players, player 0 is played with the keys.
+     * @param seed the seed of the first race.
+     */
+    public RaceView(int players, long seed) {
+        seeds = new Random(seed);
+        painted = new int[players];
+        newRace(seed);
+        setPreferredSize(new Dimension(1200, 800));
+        setBackground(Color.WHITE);
+        setFocusable(true);
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                startRace();
+            }
+        });
+
+        addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!started)
+                    return;
+                Race.Player player = race.player(0);
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_UP:
+                        player.move(Direction.UP);
+                        break;
+                    case KeyEvent.VK_DOWN:
+                        player.move(Direction.DOWN);
+                        break;
+                    case KeyEvent.VK_LEFT:
+                        player.move(Direction.LEFT);
+                        break;
+                    case KeyEvent.VK_RIGHT:
+                        player.move(Direction.RIGHT);
+                        break;
+                }
+            }
+        });
+
+        new Timer(1000 / FRAME_RATE, e -> {
+            for (int i = 0; i < painted.length; i++) {
+                if (race.player(i).snapshot().getVersion() != painted[i]) {
+                    repaint();
+                    break;
+                }
+            }
+        }).start();
+    }
+
+    /**
+     * Sets up a race with a bot for every player but the first.
+     *
+     * @param seed the seed of the race.
+     */
+    void newRace(long seed) {
+        race = new Race(painted.length, seed);
+        bots = new AutoPlayer[race.size()];
+        for (int i = 1; i < race.size(); i++) {
+            Race.Player player = race.player(i);
+            // Called on the thread of the bot, which is the only one moving its player once the race started.
+            bots[i] = new AutoPlayer(new AutoPlayer.Host() {
+                @Override
+                public boolean isRunning() {
+                    return player.getState() == State.running;
+                }
+
+                @Override
+                public long board() {
+                    return player.getBoard();
+                }
+
+                @Override
+                public void play(long board, Direction direction) {
+                    if (player.getBoard() == board)
+                        player.move(direction);
+                }
+            });
+        }
+        started = false;
+    }
+
+    /**
+     * Starts the games of all players and the bots, or a new race if all games of the last one are over.
+     */
+    void startRace() {
+        if (started) {
+            if (race.player(0).getState() == State.running)
+                return;
+            for (int i = 1; i < race.size(); i++) {
+                if (bots[i].isPlaying())
+                    return;
+            }
+            newRace(seeds.nextLong());
+        }
+        started = true;
+        for (int i = 0; i < race.size(); i++) {
+            race.player(i).start();
+        }
+        for (int i = 1; i < race.size(); i++) {
+            bots[i].start();
+        }
+        repaint();
+    }
+
+    @Override
+    public void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2 = (Graphics2D) g;
+        int n = race.size();
+        int columns = (int) Math.ceil(Math.sqrt(n));
+        int rows = (n + columns - 1) / columns;
+        int cellWidth = getWidth() / columns;
+        int cellHeight = getHeight() / rows;
+        double scale = Math.min((double) cellWidth / BoardRenderer.WIDTH, (double) cellHeight / BoardRenderer.HEIGHT);
+        Race.Snapshot[] snapshots = race.snapshots();
+        AffineTransform transform = g2.getTransform();
+        for (int i = 0; i < n; i++) {
+            Race.Snapshot snapshot = snapshots[i];
+            painted[i] = snapshot.getVersion();
+            int x = i % columns * cellWidth;
+            int y = i / columns * cellHeight;
+            g2.translate(x, y);
+            g2.scale(scale, scale);
+            renderer.draw(g2, snapshot.getBoard(), snapshot.getScore(), snapshot.getState());
+            g2.setTransform(transform);
+            g2.setColor(textColor);
+            g2.setFont(new Font("SansSerif", Font.BOLD, 16));
+            g2.drawString(i == 0 ? "You" : "Solver " + i, x + 10, y + 20);
+        }
+    }
+
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : new Random().nextLong();
+        SwingUtilities.invokeLater(() -> {
+            JFrame f = new JFrame();
+            f.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            f.setTitle("2048 race");
+            f.setResizable(true);
+            f.add(new RaceView(players, seed), BorderLayout.CENTER);
+            f.pack();
+            f.setLocationRelativeTo(null);
+            f.setVisible(true);
+        });
+    }
+}
@@ -0,0 +1,7 @@
+module com.example.game2048.swing {
+    requires transitive java.desktop;
+    requires java.management;
+    requires com.example.game2048.core;
+
+    exports com.example.game2048.swing;
+}
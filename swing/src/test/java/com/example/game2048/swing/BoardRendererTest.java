@@ -0,0 +1,97 @@
+package com.example.game2048.swing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.game2048.core.Board;
+import com.example.game2048.core.Direction;
+import com.example.game2048.core.Game;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BoardRendererTest {
+    // A 2 in the top left grid and a 4 in the bottom right one.
+    private static final long BOARD = Board.with(Board.with(0, 0, 0, 1), 3, 3, 2);
+    // A pixel of the top left tile below its text.
+    private static final int TILE_X = 175;
+    private static final int TILE_Y = 160;
+
+    private final BoardRenderer renderer = new BoardRenderer();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rendersWithoutADisplay() {
+        assertTrue(GraphicsEnvironment.isHeadless());
+        BufferedImage image = renderer.render(BOARD, 4, Game.State.running);
+        assertEquals(BoardRenderer.WIDTH, image.getWidth());
+        assertEquals(BoardRenderer.HEIGHT, image.getHeight());
+        assertEquals(0xFFFFFFFF, image.getRGB(0, 0));
+        assertEquals(0xFFFFDFCD, image.getRGB(TILE_X, TILE_Y));
+        assertEquals(4 * BoardRenderer.WIDTH * BoardRenderer.HEIGHT, renderer.renderRgba(BOARD, 4, Game.State.running)
+                .length);
+    }
+
+    @Test
+    void rgbaBytesMatchTheArgbPixels() {
+        BufferedImage image = renderer.render(BOARD, 4, Game.State.running);
+        byte[] rgba = renderer.renderRgba(BOARD, 4, Game.State.running);
+        for (int[] pixel : new int[][] {{TILE_X, TILE_Y}, {0, 0}, {160, 60}, {700, 120}}) {
+            int argb = image.getRGB(pixel[0], pixel[1]);
+            int i = 4 * (pixel[1] * BoardRenderer.WIDTH + pixel[0]);
+            assertEquals(argb >>> 16 & 0xFF, rgba[i] & 0xFF);
+            assertEquals(argb >>> 8 & 0xFF, rgba[i + 1] & 0xFF);
+            assertEquals(argb & 0xFF, rgba[i + 2] & 0xFF);
+            assertEquals(argb >>> 24, rgba[i + 3] & 0xFF);
+        }
+        int i = 4 * (TILE_Y * BoardRenderer.WIDTH + TILE_X);
+        assertEquals(0xFF, rgba[i] & 0xFF);
+        assertEquals(0xDF, rgba[i + 1] & 0xFF);
+        assertEquals(0xCD, rgba[i + 2] & 0xFF);
+        assertEquals(0xFF, rgba[i + 3] & 0xFF);
+    }
+
+    @Test
+    void replayHasAFramePerChangingMoveUntilTheGameEnds() throws IOException {
+        long seed = 7;
+        Random random = new Random(seed);
+        Direction[] moves = new Direction[2000];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = Direction.of(random.nextInt(4));
+        }
+        Game game = new Game(seed);
+        game.start();
+        int changing = 0;
+        int unchanged = 0;
+        int played = 0;
+        for (; played < moves.length && game.getState() == Game.State.running; played++) {
+            if (game.move(moves[played])) {
+                changing++;
+            } else {
+                unchanged++;
+            }
+        }
+        assertNotEquals(Game.State.running, game.getState());
+        assertTrue(played < moves.length && unchanged > 0, played + " moves played, " + unchanged + " unchanged");
+
+        int frames = renderer.writeReplay(seed, moves, directory);
+        assertEquals(1 + changing, frames);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(frames, files.count());
+        }
+        BufferedImage last = ImageIO.read(directory.resolve(String.format("frame-%05d.png", frames - 1)).toFile());
+        assertEquals(BoardRenderer.WIDTH, last.getWidth());
+        assertEquals(renderer.render(game.getBoard(), game.getScore(), game.getState()).getRGB(400, 300),
+                last.getRGB(400, 300));
+    }
+}